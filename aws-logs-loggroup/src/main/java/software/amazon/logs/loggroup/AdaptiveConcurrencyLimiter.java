@@ -0,0 +1,133 @@
+package software.amazon.logs.loggroup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounds the number of in-flight API calls with an AIMD limit: every successful
+ * call grows the limit by roughly one per round trip of calls, every throttled
+ * call halves it. A call that failed otherwise says nothing about the rate the
+ * service will take and leaves the limit as it is.
+ *
+ * Async callers are queued in order and handed their permit by the release that
+ * frees it, so no thread waits for one.
+ */
+class AdaptiveConcurrencyLimiter {
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+
+    enum Outcome {
+        SUCCEEDED,
+        THROTTLED,
+        FAILED
+    }
+
+    AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        this.initialLimit = initialLimit;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Completes once the caller holds a permit, which it must release.
+     */
+    synchronized CompletableFuture<Void> acquireAsync() {
+        if (waiters.isEmpty() && inFlight < (int) limit) {
+            inFlight++;
+            return CompletableFuture.completedFuture(null);
+        }
+        final CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /**
+     * Blocks the calling thread until it holds a permit. Only for callers on their
+     * own thread, such as a handler's synchronous calls, never for completion or
+     * scheduler threads.
+     */
+    void acquire() throws InterruptedException {
+        final CompletableFuture<Void> permit = acquireAsync();
+        try {
+            permit.get();
+        } catch (final InterruptedException e) {
+            if (!permit.cancel(false)) {
+                release(Outcome.FAILED);
+            }
+            throw e;
+        } catch (final ExecutionException e) {
+            // Permits are only ever granted.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void release(final Outcome outcome) {
+        final List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            inFlight--;
+            if (outcome == Outcome.THROTTLED) {
+                limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+            } else if (outcome == Outcome.SUCCEEDED) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            granted = grantWaiters();
+        }
+        complete(granted);
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Puts the limit back where it started, so that tests sharing the container-wide
+     * limiter don't inherit the limit earlier throttling left.
+     */
+    void reset() {
+        final List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            limit = initialLimit;
+            granted = grantWaiters();
+        }
+        complete(granted);
+    }
+
+    private List<CompletableFuture<Void>> grantWaiters() {
+        List<CompletableFuture<Void>> granted = Collections.emptyList();
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            final CompletableFuture<Void> waiter = waiters.poll();
+            if (!waiter.isDone()) {
+                if (granted.isEmpty()) {
+                    granted = new ArrayList<>();
+                }
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    /**
+     * Outside the lock, as completing a waiter runs its call. A waiter cancelled
+     * meanwhile hands its permit straight back.
+     */
+    private void complete(final List<CompletableFuture<Void>> granted) {
+        for (final CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                release(Outcome.FAILED);
+            }
+        }
+    }
+}
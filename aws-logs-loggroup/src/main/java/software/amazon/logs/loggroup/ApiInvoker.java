@@ -0,0 +1,310 @@
+package software.amazon.logs.loggroup;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LimitExceededException;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnServiceLimitExceededException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Every CloudWatch Logs call the handlers make goes through here. Calls run under a
+ * container-wide {@link AdaptiveConcurrencyLimiter}, and throttled calls are retried
+ * with full-jitter exponential backoff before the throttle is surfaced to
+ * CloudFormation. Server errors and I/O failures are retried the same way. This is
+ * the only retry layer: the clients are built without SDK retries, so each attempt
+ * is one request on the wire and the limiter hears of a throttle straight away.
+ * A throttle is surfaced early rather than backing off past the invocation's
+ * {@link Deadline}. Each attempt is recorded in the invocation's
+ * {@link HandlerMetrics}.
+ *
+ * {@link #invokeAsync} applies the same policy to the async client without blocking:
+ * a call waits for its permit as a future, and a throttled call is re-sent from a
+ * shared scheduler thread once its backoff has passed. Only {@link #invoke} blocks,
+ * and only the handler thread that calls it.
+ */
+class ApiInvoker {
+    private static final int DEFAULT_MAX_ATTEMPTS = 4;
+    private static final long DEFAULT_BASE_DELAY_MILLIS = 100;
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 2000;
+    private static final Set<Integer> RETRYABLE_STATUS_CODES =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList(500, 502, 503, 504)));
+
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Sleeper sleeper;
+    private final Random random;
+
+    ApiInvoker(final AdaptiveConcurrencyLimiter limiter,
+               final int maxAttempts,
+               final long baseDelayMillis,
+               final long maxDelayMillis,
+               final Sleeper sleeper,
+               final Random random) {
+        this.limiter = limiter;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.sleeper = sleeper;
+        this.random = random;
+    }
+
+    static ApiInvoker shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Defers building the shared invoker and its limiter to the first API call.
+     */
+    private static class SharedHolder {
+        static final ApiInvoker INSTANCE = new ApiInvoker(
+            new AdaptiveConcurrencyLimiter(10, 1, 50),
+            DEFAULT_MAX_ATTEMPTS,
+            DEFAULT_BASE_DELAY_MILLIS,
+            DEFAULT_MAX_DELAY_MILLIS,
+            Thread::sleep,
+            new Random());
+    }
+
+    <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT invoke(
+        final AmazonWebServicesClientProxy proxy,
+        final RequestT request,
+        final Function<RequestT, ResponseT> requestFunction,
+        final HandlerMetrics metrics) {
+
+        final String operation = operationName(request);
+        final long bytesOut = HandlerMetrics.payloadBytes(request);
+        for (int attempt = 1; ; attempt++) {
+            acquire();
+            AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.FAILED;
+            long backoffMillis = 0;
+            final long start = System.nanoTime();
+            try {
+                final ResponseT response = proxy.injectCredentialsAndInvokeV2(request, requestFunction);
+                outcome = AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED;
+                metrics.recordCall(operation, elapsedMillis(start), bytesOut, HandlerMetrics.payloadBytes(response));
+                return response;
+            } catch (final RuntimeException e) {
+                metrics.recordCall(operation, elapsedMillis(start), bytesOut, 0);
+                final boolean throttled = isThrottle(e);
+                if (!throttled && !isTransient(e)) {
+                    metrics.recordError(operation);
+                    throw translateError(e);
+                }
+                if (throttled) {
+                    outcome = AdaptiveConcurrencyLimiter.Outcome.THROTTLED;
+                    metrics.recordThrottle(operation);
+                }
+                backoffMillis = backoffMillis(attempt);
+                if (attempt >= maxAttempts || !Deadline.of(proxy).hasTimeFor(backoffMillis)) {
+                    if (throttled) {
+                        throw translateThrottle(request, e);
+                    }
+                    metrics.recordError(operation);
+                    throw translateError(e);
+                }
+            } finally {
+                limiter.release(outcome);
+            }
+            metrics.recordRetry(operation);
+            sleep(backoffMillis);
+        }
+    }
+
+    <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> invokeAsync(
+        final AmazonWebServicesClientProxy proxy,
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction,
+        final HandlerMetrics metrics) {
+        final CompletableFuture<ResponseT> result = new CompletableFuture<>();
+        attemptAsync(proxy, request, requestFunction, metrics, 1, result);
+        return result;
+    }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> void attemptAsync(
+        final AmazonWebServicesClientProxy proxy,
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction,
+        final HandlerMetrics metrics,
+        final int attempt,
+        final CompletableFuture<ResponseT> result) {
+        limiter.acquireAsync().thenRun(() -> sendAsync(proxy, request, requestFunction, metrics, attempt, result));
+    }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> void sendAsync(
+        final AmazonWebServicesClientProxy proxy,
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction,
+        final HandlerMetrics metrics,
+        final int attempt,
+        final CompletableFuture<ResponseT> result) {
+
+        final String operation = operationName(request);
+        final long bytesOut = HandlerMetrics.payloadBytes(request);
+        final long start = System.nanoTime();
+        CompletableFuture<ResponseT> call;
+        try {
+            call = proxy.injectCredentialsAndInvokeV2Async(request, requestFunction);
+        } catch (final RuntimeException e) {
+            call = new CompletableFuture<>();
+            call.completeExceptionally(e);
+        }
+        call.whenComplete((response, error) -> {
+            if (error == null) {
+                limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+                metrics.recordCall(operation, elapsedMillis(start), bytesOut, HandlerMetrics.payloadBytes(response));
+                result.complete(response);
+                return;
+            }
+            final RuntimeException e = unwrap(error);
+            final boolean throttled = isThrottle(e);
+            limiter.release(throttled
+                ? AdaptiveConcurrencyLimiter.Outcome.THROTTLED
+                : AdaptiveConcurrencyLimiter.Outcome.FAILED);
+            metrics.recordCall(operation, elapsedMillis(start), bytesOut, 0);
+            if (!throttled && !isTransient(e)) {
+                metrics.recordError(operation);
+                result.completeExceptionally(translateError(e));
+                return;
+            }
+            if (throttled) {
+                metrics.recordThrottle(operation);
+            }
+            final long backoffMillis = backoffMillis(attempt);
+            if (attempt >= maxAttempts || !Deadline.of(proxy).hasTimeFor(backoffMillis)) {
+                if (throttled) {
+                    result.completeExceptionally(translateThrottle(request, e));
+                } else {
+                    metrics.recordError(operation);
+                    result.completeExceptionally(translateError(e));
+                }
+                return;
+            }
+            metrics.recordRetry(operation);
+            RetrySchedulerHolder.INSTANCE.schedule(
+                () -> attemptAsync(proxy, request, requestFunction, metrics, attempt + 1, result),
+                backoffMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Waits for a future and rethrows its failure as the exception the call raised,
+     * not wrapped in a CompletionException.
+     */
+    static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    static RuntimeException unwrap(final Throwable error) {
+        final Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+    }
+
+    /**
+     * Retries are rare, and a retry waiting for a permit doesn't hold the thread,
+     * so one daemon thread serves every pending backoff. It is started by the first
+     * async retry.
+     */
+    private static class RetrySchedulerHolder {
+        static final ScheduledExecutorService INSTANCE =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("api-retry"));
+    }
+
+    /**
+     * CreateLogGroupRequest is reported as CreateLogGroup.
+     */
+    static String operationName(final AwsRequest request) {
+        return request.getClass().getSimpleName().replaceFirst("Request$", "");
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Full jitter: a uniformly random delay up to the capped exponential backoff.
+     */
+    long backoffMillis(final int attempt) {
+        final long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        return (long) (random.nextDouble() * ceiling);
+    }
+
+    /**
+     * LimitExceededException is a resource quota, such as the number of log groups
+     * in the account, not a rate: waiting does not clear it.
+     */
+    static boolean isThrottle(final Exception e) {
+        return !(e instanceof LimitExceededException)
+            && e instanceof SdkServiceException && ((SdkServiceException) e).isThrottlingException();
+    }
+
+    /**
+     * The server errors and I/O failures the SDK's default policy retries. The
+     * clients are built without SDK retries, so they are retried here instead.
+     */
+    static boolean isTransient(final Exception e) {
+        if (e instanceof SdkServiceException) {
+            return RETRYABLE_STATUS_CODES.contains(((SdkServiceException) e).statusCode());
+        }
+        return e instanceof SdkClientException && e.getCause() instanceof IOException;
+    }
+
+    private static RuntimeException translateThrottle(final AwsRequest request, final RuntimeException e) {
+        return new CfnThrottlingException(request.getClass().getSimpleName(), e);
+    }
+
+    private static RuntimeException translateError(final RuntimeException e) {
+        if (e instanceof LimitExceededException) {
+            return new CfnServiceLimitExceededException(ResourceModel.TYPE_NAME, e.getMessage(), e);
+        }
+        return e;
+    }
+
+    private void acquire() {
+        try {
+            limiter.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+    }
+
+    private void sleep(final long millis) {
+        try {
+            sleeper.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package software.amazon.logs.loggroup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Starts one async task per item with at most {@code limit} in flight, starting
+ * the next as each one completes. No thread is held while a task waits, so a
+ * fan-out of hundreds of calls costs a few completion callbacks, not a pool.
+ *
+ * Tasks that complete synchronously are started from a loop rather than from each
+ * other's callbacks, so a long run of them does not grow the stack.
+ */
+final class AsyncFanOut<T, R> {
+    private final List<T> items;
+    private final int limit;
+    private final Function<T, CompletableFuture<R>> task;
+    private final List<CompletableFuture<R>> results;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private int next;
+
+    private AsyncFanOut(final List<T> items, final int limit, final Function<T, CompletableFuture<R>> task) {
+        this.items = items;
+        this.limit = limit;
+        this.task = task;
+        this.results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * Completes with the results in item order once every task has completed, or
+     * exceptionally if any task failed.
+     */
+    static <T, R> CompletableFuture<List<R>> map(final List<T> items,
+                                                 final int limit,
+                                                 final Function<T, CompletableFuture<R>> task) {
+        final AsyncFanOut<T, R> fanOut = new AsyncFanOut<>(items, Math.max(1, limit), task);
+        fanOut.drain();
+        return CompletableFuture.allOf(fanOut.results.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> fanOut.results.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Only one thread runs the loop at a time. A completion that arrives while it
+     * runs just asks for another pass.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            while (next < items.size() && inFlight.get() < limit) {
+                inFlight.incrementAndGet();
+                start(next++);
+            }
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    private void start(final int index) {
+        CompletableFuture<R> started;
+        try {
+            started = task.apply(items.get(index));
+        } catch (final RuntimeException e) {
+            started = new CompletableFuture<>();
+            started.completeExceptionally(e);
+        }
+        started.whenComplete((result, error) -> {
+            inFlight.decrementAndGet();
+            if (error == null) {
+                results.get(index).complete(result);
+            } else {
+                results.get(index).completeExceptionally(ApiInvoker.unwrap(error));
+            }
+            drain();
+        });
+    }
+}
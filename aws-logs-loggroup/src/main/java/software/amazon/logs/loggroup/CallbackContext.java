@@ -1,12 +1,22 @@
 package software.amazon.logs.loggroup;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Carries progress between invocations of a handler that returned IN_PROGRESS, so
+ * a re-invoked handler resumes after the last step that completed.
+ */
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 @Builder
 public class CallbackContext {
-
+    private boolean logGroupCreated;
+    private boolean retentionPolicyApplied;
+    private int throttleCallbacks;
+    private int stabilizationPolls;
+    private long stabilizationStartedMillis;
 }
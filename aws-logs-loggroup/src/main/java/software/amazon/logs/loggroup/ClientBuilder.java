@@ -1,14 +1,66 @@
 package software.amazon.logs.loggroup;
 
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
 import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
 import software.amazon.cloudformation.LambdaWrapper;
 
 public class ClientBuilder {
+    static final int EVENT_LOOP_THREADS = 2;
+    static final int MAX_ASYNC_CONNECTIONS = 200;
+
     private ClientBuilder() {}
 
-    public static CloudWatchLogsClient getClient() {
-        return CloudWatchLogsClient.builder()
+    /**
+     * The client is built on first use and then shared by every handler invocation
+     * in a warm container. Credentials are injected per request by the proxy, so a
+     * single client is safe to reuse across callers.
+     */
+    private static class LazyHolder {
+        static final CloudWatchLogsClient CLIENT = CloudWatchLogsClient.builder()
                 .httpClient(LambdaWrapper.HTTP_CLIENT)
+                .overrideConfiguration(overrideConfiguration())
                 .build();
     }
+
+    /**
+     * {@link ApiInvoker} retries throttles, server errors and I/O failures itself,
+     * so the SDK does not retry on top of it.
+     */
+    static ClientOverrideConfiguration overrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .retryPolicy(RetryPolicy.none())
+                .build();
+    }
+
+    public static CloudWatchLogsClient getClient() {
+        return LazyHolder.CLIENT;
+    }
+
+    /**
+     * Kept apart from the synchronous client so that handlers which never make an
+     * asynchronous call do not load or start the async HTTP client.
+     *
+     * Every async call in the container shares one small non-blocking event loop, so
+     * a call waiting on the service holds a connection but not a thread. Responses are
+     * completed on the SDK's default completion executor rather than on the event
+     * loop. Callers chain translation and further calls onto them; none of it blocks,
+     * but it is kept off the threads doing the I/O.
+     */
+    private static class AsyncLazyHolder {
+        static final CloudWatchLogsAsyncClient CLIENT = CloudWatchLogsAsyncClient.builder()
+                .httpClient(NettyNioAsyncHttpClient.builder()
+                        .eventLoopGroup(SdkEventLoopGroup.builder().numberOfThreads(EVENT_LOOP_THREADS).build())
+                        .maxConcurrency(MAX_ASYNC_CONNECTIONS)
+                        .build())
+                .overrideConfiguration(overrideConfiguration())
+                .build();
+    }
+
+    public static CloudWatchLogsAsyncClient getAsyncClient() {
+        return AsyncLazyHolder.CLIENT;
+    }
 }
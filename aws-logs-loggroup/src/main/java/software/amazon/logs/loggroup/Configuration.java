@@ -6,16 +6,27 @@ import org.json.JSONTokener;
 import java.util.Map;
 
 class Configuration extends BaseConfiguration {
+    static final String SCHEMA_FILENAME = "aws-logs-loggroup.json";
 
     public Configuration() {
-        super("aws-logs-loggroup.json");
+        super(SCHEMA_FILENAME);
     }
 
+    /**
+     * The schema is parsed once per container and the same instance is returned to
+     * every caller. The wrapper only reads it to validate requests; nothing may
+     * modify it.
+     */
     public JSONObject resourceSchemaJSONObject() {
-        return new JSONObject(new JSONTokener(this.getClass().getClassLoader().getResourceAsStream(schemaFilename)));
+        return SchemaHolder.SCHEMA;
     }
 
     public Map<String, String> resourceDefinedTags(final ResourceModel resourceModel) {
         return null;
     }
+
+    private static class SchemaHolder {
+        static final JSONObject SCHEMA = new JSONObject(new JSONTokener(
+            Configuration.class.getClassLoader().getResourceAsStream(SCHEMA_FILENAME)));
+    }
 }
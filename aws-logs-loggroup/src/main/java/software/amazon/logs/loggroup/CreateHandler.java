@@ -1,20 +1,52 @@
 package software.amazon.logs.loggroup;
 
-import org.apache.commons.collections.MapUtils;
 import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.cloudformation.resource.IdentifierUtils;
-import com.amazonaws.util.StringUtils;
-import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceAlreadyExistsException;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
 
-import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class CreateHandler extends BaseHandler<CallbackContext> {
     private static final String DEFAULT_LOG_GROUP_NAME_PREFIX = "LogGroup";
     private static final int MAX_LENGTH_LOG_GROUP_NAME = 512;
+    static final int MAX_STABILIZATION_POLLS = 10;
+    private static final int MAX_STABILIZATION_DELAY_SECONDS = 16;
+
+    private final Supplier<CloudWatchLogsAsyncClient> asyncClientSupplier;
+    private final LogGroupWriter writer;
+    private final LogGroupCache cache;
+    private final IdempotencyLedger ledger;
+
+    public CreateHandler() {
+        this(ClientBuilder::getAsyncClient);
+    }
+
+    CreateHandler(final Supplier<CloudWatchLogsAsyncClient> asyncClientSupplier) {
+        this(asyncClientSupplier, LogGroupCache.shared());
+    }
+
+    CreateHandler(final Supplier<CloudWatchLogsAsyncClient> asyncClientSupplier, final LogGroupCache cache) {
+        this(asyncClientSupplier, cache, IdempotencyLedger.shared());
+    }
+
+    CreateHandler(final Supplier<CloudWatchLogsAsyncClient> asyncClientSupplier,
+                  final LogGroupCache cache,
+                  final IdempotencyLedger ledger) {
+        this.asyncClientSupplier = asyncClientSupplier;
+        this.cache = cache;
+        this.ledger = ledger;
+        this.writer = new LogGroupWriter(ClientBuilder::getClient, asyncClientSupplier);
+    }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -22,24 +54,182 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
-        prepareResourceModel(request);
+        return HandlerMetrics.instrument("CreateHandler",
+            metrics -> handleRequest(proxy, request, callbackContext, logger, metrics));
+    }
+
+    /**
+     * The steps are chained on the async client. The retention policy and the first
+     * stabilization poll both only need the group to exist, so they are sent
+     * together as soon as creation is acknowledged, and the handler thread waits
+     * once for both.
+     *
+     * A step this request already completed, according to the callback context or
+     * the {@link IdempotencyLedger}, is not sent again. A step that would start past
+     * the invocation's {@link Deadline} is not sent either; the handler checkpoints
+     * what it has done and returns IN_PROGRESS.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+        final AmazonWebServicesClientProxy proxy,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final CallbackContext callbackContext,
+        final Logger logger,
+        final HandlerMetrics metrics) {
+        final boolean nameGenerated = prepareResourceModel(request);
         final ResourceModel model = request.getDesiredResourceState();
+        final CallbackContext context = callbackContext == null ? new CallbackContext() : callbackContext;
+        final IdempotencyLedger.Key replayKey = IdempotencyLedger.Key.of(request, model);
+        if (!context.isLogGroupCreated()
+                && ledger.isCompleted(replayKey, IdempotencyLedger.Step.LOG_GROUP_CREATED, metrics)) {
+            context.setLogGroupCreated(true);
+        }
+        if (!context.isRetentionPolicyApplied() && model.getRetentionInDays() != null
+                && ledger.isCompleted(replayKey, IdempotencyLedger.Step.RETENTION_POLICY_APPLIED, metrics)) {
+            context.setRetentionPolicyApplied(true);
+        }
+        final Deadline deadline = Deadline.of(proxy);
+        if (deadline.isExpired()) {
+            return Deadline.checkpoint(model, context);
+        }
+
+        final CompletableFuture<Void> created = context.isLogGroupCreated()
+            ? CompletableFuture.completedFuture(null)
+            : createLogGroup(proxy, model, context, replayKey, nameGenerated, logger, metrics);
+        final CompletableFuture<Void> retentionApplied =
+            model.getRetentionInDays() == null || context.isRetentionPolicyApplied()
+                ? created
+                : created.thenCompose(ignored -> deadline.isExpired()
+                    ? CompletableFuture.completedFuture(null)
+                    : updateRetentionInDays(proxy, model, context, replayKey, logger, metrics));
+        // Completes with null rather than an Optional when the poll was not sent.
+        final CompletableFuture<Optional<LogGroup>> polled =
+            created.thenCompose(ignored -> deadline.isExpired()
+                ? CompletableFuture.completedFuture(null)
+                : poll(proxy, model, context, metrics));
 
         try {
-            proxy.injectCredentialsAndInvokeV2(Translator.translateToCreateRequest(model),
-                ClientBuilder.getClient()::createLogGroup);
-        } catch (final ResourceAlreadyExistsException e) {
-            throw new CfnAlreadyExistsException(ResourceModel.TYPE_NAME,
-                Objects.toString(model.getPrimaryIdentifier()));
+            CompletableFuture.allOf(retentionApplied, polled).exceptionally(error -> null).join();
+            ApiInvoker.join(retentionApplied);
+            final Optional<LogGroup> logGroup = ApiInvoker.join(polled);
+            if (logGroup == null || (model.getRetentionInDays() != null && !context.isRetentionPolicyApplied())) {
+                logger.log(String.format("%s [%s] ran out of invocation time, resuming in a new invocation.",
+                    ResourceModel.TYPE_NAME, model.getLogGroupName()));
+                return Deadline.checkpoint(model, context);
+            }
+            return stabilize(model, context, logGroup, logger, metrics);
+        } catch (final CfnThrottlingException e) {
+            return ThrottledProgress.retryLater(e, model, context);
+        } catch (final ResourceNotFoundException e) {
+            // Deleted out of band before its retention was applied.
+            return HandlerErrors.notFound(model);
+        } finally {
+            cache.invalidate(LogGroupCache.Key.of(request, model));
         }
-        final String createMessage = String.format("%s [%s] successfully created.",
-                ResourceModel.TYPE_NAME, model.getLogGroupName());
-        logger.log(createMessage);
+    }
 
-        if (model.getRetentionInDays() != null) {
-            updateRetentionInDays(proxy, request, logger);
+    private CompletableFuture<Optional<LogGroup>> poll(final AmazonWebServicesClientProxy proxy,
+                                                       final ResourceModel model,
+                                                       final CallbackContext context,
+                                                       final HandlerMetrics metrics) {
+        if (context.getStabilizationStartedMillis() == 0) {
+            context.setStabilizationStartedMillis(System.currentTimeMillis());
         }
-        return ProgressEvent.defaultSuccessHandler(model);
+        context.setStabilizationPolls(context.getStabilizationPolls() + 1);
+        return LogGroupReader.describeExactLogGroupAsync(proxy, asyncClientSupplier.get(), model, metrics);
+    }
+
+    /**
+     * DescribeLogGroups is eventually consistent, so a new group may not be listed
+     * straight away. Each miss hands back IN_PROGRESS with a doubling callback delay,
+     * up to {@link #MAX_STABILIZATION_POLLS} polls. The delays stay under
+     * {@link Deadline#LOCAL_REINVOKE_THRESHOLD_SECONDS}, so while the invocation has
+     * time the wrapper sleeps through them and polls again in the same Lambda: a
+     * group is usually listed within seconds, and waiting for a scheduled callback
+     * would add a minute to every create.
+     * Once visible, the model is returned as read, including its Arn. The read may
+     * predate the retention call it raced, so the retention is taken from the model.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> stabilize(final ResourceModel model,
+                                                                    final CallbackContext context,
+                                                                    final Optional<LogGroup> logGroup,
+                                                                    final Logger logger,
+                                                                    final HandlerMetrics metrics) {
+        if (logGroup.isPresent()) {
+            final long stabilizationMillis = System.currentTimeMillis() - context.getStabilizationStartedMillis();
+            metrics.recordStabilization(context.getStabilizationPolls(), stabilizationMillis);
+            final String stabilizedMessage = String.format("%s [%s] stabilized after %d poll(s) in %d ms.",
+                ResourceModel.TYPE_NAME, model.getLogGroupName(), context.getStabilizationPolls(),
+                stabilizationMillis);
+            logger.log(stabilizedMessage);
+            final ResourceModel stabilizedModel = Translator.translateForRead(logGroup.get());
+            stabilizedModel.setRetentionInDays(model.getRetentionInDays());
+            return ProgressEvent.defaultSuccessHandler(stabilizedModel);
+        }
+
+        if (context.getStabilizationPolls() >= MAX_STABILIZATION_POLLS) {
+            throw new CfnNotStabilizedException(ResourceModel.TYPE_NAME, model.getLogGroupName());
+        }
+        final int callbackDelaySeconds = stabilizationDelaySeconds(context.getStabilizationPolls());
+        final String pollMessage = String.format("%s [%s] not yet visible after %d poll(s), polling again in %d s.",
+            ResourceModel.TYPE_NAME, model.getLogGroupName(), context.getStabilizationPolls(), callbackDelaySeconds);
+        logger.log(pollMessage);
+        return ProgressEvent.defaultInProgressHandler(context, callbackDelaySeconds, model);
+    }
+
+    static int stabilizationDelaySeconds(final int polls) {
+        return Math.min(MAX_STABILIZATION_DELAY_SECONDS, 1 << Math.min(polls - 1, 4));
+    }
+
+    /**
+     * A generated name is derived from the request token, so if it already exists
+     * it was created by an earlier attempt of this same request, possibly in
+     * another container, and counts as created.
+     */
+    private CompletableFuture<Void> createLogGroup(final AmazonWebServicesClientProxy proxy,
+                                                   final ResourceModel model,
+                                                   final CallbackContext context,
+                                                   final IdempotencyLedger.Key replayKey,
+                                                   final boolean nameGenerated,
+                                                   final Logger logger,
+                                                   final HandlerMetrics metrics) {
+        return writer.createLogGroupAsync(proxy, model, metrics)
+            .handle((ignored, error) -> {
+                if (error == null) {
+                    return false;
+                }
+                if (nameGenerated && ApiInvoker.unwrap(error) instanceof CfnAlreadyExistsException) {
+                    return true;
+                }
+                throw ApiInvoker.unwrap(error);
+            })
+            .thenAccept(alreadyCreated -> {
+                context.setLogGroupCreated(true);
+                ledger.complete(replayKey, IdempotencyLedger.Step.LOG_GROUP_CREATED);
+                if (alreadyCreated) {
+                    metrics.recordReplayedStep();
+                }
+                final String createMessage = String.format(alreadyCreated
+                        ? "%s [%s] was already created for this request."
+                        : "%s [%s] successfully created.",
+                    ResourceModel.TYPE_NAME, model.getLogGroupName());
+                logger.log(createMessage);
+            });
+    }
+
+    private CompletableFuture<Void> updateRetentionInDays(final AmazonWebServicesClientProxy proxy,
+                                                          final ResourceModel model,
+                                                          final CallbackContext context,
+                                                          final IdempotencyLedger.Key replayKey,
+                                                          final Logger logger,
+                                                          final HandlerMetrics metrics) {
+        return writer.putRetentionPolicyAsync(proxy, model, metrics).thenRun(() -> {
+            context.setRetentionPolicyApplied(true);
+            ledger.complete(replayKey, IdempotencyLedger.Step.RETENTION_POLICY_APPLIED);
+            final String retentionPolicyMessage =
+                String.format("%s [%s] successfully applied retention in days: [%d].",
+                    ResourceModel.TYPE_NAME, model.getLogGroupName(), model.getRetentionInDays());
+            logger.log(retentionPolicyMessage);
+        });
     }
 
     /**
@@ -50,22 +240,26 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
      *    have a logical ID, but we don't want the log name generation to depend on it.
      * 2. Generating a log name if one is not given. This is a createOnly property,
      *    but we generate one if one is not provided.
+     *
+     * Returns whether the name was generated.
      */
-    private void prepareResourceModel(final ResourceHandlerRequest<ResourceModel> request) {
+    private boolean prepareResourceModel(final ResourceHandlerRequest<ResourceModel> request) {
         if (request.getDesiredResourceState() == null) {
             request.setDesiredResourceState(new ResourceModel());
         }
         final ResourceModel model = request.getDesiredResourceState();
 
-        if (StringUtils.isNullOrEmpty(model.getLogGroupName())) {
+        if (model.getLogGroupName() == null || model.getLogGroupName().isEmpty()) {
             model.setLogGroupName(generateName(request));
+            return true;
         }
+        return false;
     }
 
-    private String generateName(final ResourceHandlerRequest<ResourceModel> request) {
+    static String generateName(final ResourceHandlerRequest<ResourceModel> request) {
         final StringBuilder identifierPrefix = new StringBuilder();
         identifierPrefix.append((request.getSystemTags() != null &&
-                MapUtils.isNotEmpty(request.getSystemTags())) ?
+                !request.getSystemTags().isEmpty()) ?
                 request.getSystemTags().get("aws:cloudformation:stack-name") + "-" : "");
         identifierPrefix.append(request.getLogicalResourceIdentifier() == null ?
                 DEFAULT_LOG_GROUP_NAME_PREFIX :
@@ -76,17 +270,4 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
                 request.getClientRequestToken(),
                 MAX_LENGTH_LOG_GROUP_NAME);
     }
-
-    private void updateRetentionInDays(final AmazonWebServicesClientProxy proxy,
-                                       final ResourceHandlerRequest<ResourceModel> request,
-                                       final Logger logger) {
-        final ResourceModel model = request.getDesiredResourceState();
-        proxy.injectCredentialsAndInvokeV2(Translator.translateToPutRetentionPolicyRequest(model),
-            ClientBuilder.getClient()::putRetentionPolicy);
-
-        final String retentionPolicyMessage =
-            String.format("%s [%s] successfully applied retention in days: [%d].",
-                ResourceModel.TYPE_NAME, model.getLogGroupName(), model.getRetentionInDays());
-        logger.log(retentionPolicyMessage);
-    }
 }
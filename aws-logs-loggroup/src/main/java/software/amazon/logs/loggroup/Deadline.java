@@ -0,0 +1,81 @@
+package software.amazon.logs.loggroup;
+
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * The time an invocation has left to start another call, which is what the
+ * Lambda reports less a reserve for the call in flight and for the wrapper to send
+ * back the result. Handlers check it before each step, and once it has expired
+ * hand back what they have done as IN_PROGRESS or a partial page rather than be
+ * cut off mid-step. {@link ApiInvoker} does not back off past it.
+ */
+final class Deadline {
+    static final Duration DEFAULT_RESERVE = Duration.ofSeconds(5);
+    /**
+     * The wrapper re-invokes a handler in the same Lambda, after sleeping for the
+     * callback delay, when the delay is shorter than this and the invocation has
+     * time left. Only a delay of at least this long ends the invocation.
+     */
+    static final int LOCAL_REINVOKE_THRESHOLD_SECONDS = 60;
+    static final int CHECKPOINT_DELAY_SECONDS = LOCAL_REINVOKE_THRESHOLD_SECONDS;
+
+    private final long deadlineNanos;
+    private final LongSupplier nanoClock;
+
+    Deadline(final long deadlineNanos, final LongSupplier nanoClock) {
+        this.deadlineNanos = deadlineNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    static Deadline of(final AmazonWebServicesClientProxy proxy) {
+        return of(proxy, DEFAULT_RESERVE, System::nanoTime);
+    }
+
+    static Deadline of(final AmazonWebServicesClientProxy proxy,
+                       final Duration reserve,
+                       final LongSupplier nanoClock) {
+        final long remainingNanos = Duration.ofMillis(proxy.getRemainingTimeInMillis()).minus(reserve).toNanos();
+        return new Deadline(nanoClock.getAsLong() + remainingNanos, nanoClock);
+    }
+
+    static Deadline after(final Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), System::nanoTime);
+    }
+
+    /**
+     * This deadline or {@code budget} from now, whichever comes first.
+     */
+    Deadline within(final Duration budget) {
+        final long budgetNanos = nanoClock.getAsLong() + budget.toNanos();
+        if (deadlineNanos - budgetNanos <= 0) {
+            return this;
+        }
+        return new Deadline(budgetNanos, nanoClock);
+    }
+
+    boolean isExpired() {
+        return deadlineNanos - nanoClock.getAsLong() <= 0;
+    }
+
+    /**
+     * Whether {@code millis} can pass before the deadline.
+     */
+    boolean hasTimeFor(final long millis) {
+        return deadlineNanos - nanoClock.getAsLong() > Duration.ofMillis(millis).toNanos();
+    }
+
+    /**
+     * Hands the rest of a mutating handler's work to a new invocation, which
+     * resumes from the steps recorded in {@code context}. The invocation is out of
+     * time by now, so the delay is long enough for the wrapper to end it rather
+     * than re-invoke in place; the work resumes a minute later.
+     */
+    static ProgressEvent<ResourceModel, CallbackContext> checkpoint(final ResourceModel model,
+                                                                    final CallbackContext context) {
+        return ProgressEvent.defaultInProgressHandler(context, CHECKPOINT_DELAY_SECONDS, model);
+    }
+}
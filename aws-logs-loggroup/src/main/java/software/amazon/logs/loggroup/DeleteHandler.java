@@ -1,29 +1,78 @@
 package software.amazon.logs.loggroup;
 
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
-import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
 
-import java.util.Objects;
+import java.util.function.Supplier;
 
 public class DeleteHandler extends BaseHandler<CallbackContext> {
 
+    private final Supplier<CloudWatchLogsClient> clientSupplier;
+    private final LogGroupCache cache;
+    private final IdempotencyLedger ledger;
+
+    public DeleteHandler() {
+        this(ClientBuilder::getClient);
+    }
+
+    DeleteHandler(final Supplier<CloudWatchLogsClient> clientSupplier) {
+        this(clientSupplier, LogGroupCache.shared());
+    }
+
+    DeleteHandler(final Supplier<CloudWatchLogsClient> clientSupplier, final LogGroupCache cache) {
+        this(clientSupplier, cache, IdempotencyLedger.shared());
+    }
+
+    DeleteHandler(final Supplier<CloudWatchLogsClient> clientSupplier,
+                  final LogGroupCache cache,
+                  final IdempotencyLedger ledger) {
+        this.clientSupplier = clientSupplier;
+        this.cache = cache;
+        this.ledger = ledger;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
+        return HandlerMetrics.instrument("DeleteHandler",
+            metrics -> handleRequest(proxy, request, callbackContext, logger, metrics));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+        final AmazonWebServicesClientProxy proxy,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final CallbackContext callbackContext,
+        final Logger logger,
+        final HandlerMetrics metrics) {
 
         final ResourceModel model = request.getDesiredResourceState();
+        final CallbackContext context = callbackContext == null ? new CallbackContext() : callbackContext;
+        // A replay of a delete that succeeded answers as it did, not with NotFound.
+        final IdempotencyLedger.Key replayKey = IdempotencyLedger.Key.of(request, model);
+        if (ledger.isCompleted(replayKey, IdempotencyLedger.Step.LOG_GROUP_DELETED, metrics)) {
+            return ProgressEvent.defaultSuccessHandler(null);
+        }
+        if (Deadline.of(proxy).isExpired()) {
+            return Deadline.checkpoint(model, context);
+        }
         try {
-            proxy.injectCredentialsAndInvokeV2(Translator.translateToDeleteRequest(model),
-                ClientBuilder.getClient()::deleteLogGroup);
-        } catch (final ResourceNotFoundException e) {
-            throw new software.amazon.cloudformation.exceptions.ResourceNotFoundException(ResourceModel.TYPE_NAME,
-                Objects.toString(model.getPrimaryIdentifier()));
+            ApiInvoker.shared().invoke(proxy, Translator.translateToDeleteRequest(model),
+                clientSupplier.get()::deleteLogGroup, metrics);
+            ledger.complete(replayKey, IdempotencyLedger.Step.LOG_GROUP_DELETED);
+        } catch (final CfnThrottlingException e) {
+            return ThrottledProgress.retryLater(e, model, context);
+        } catch (final CloudWatchLogsException e) {
+            return HandlerErrors.failed(model, e);
+        } finally {
+            cache.invalidate(LogGroupCache.Key.of(request, model));
         }
 
         final String message = String.format("%s [%s] successfully deleted.",
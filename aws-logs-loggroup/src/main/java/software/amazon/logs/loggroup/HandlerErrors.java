@@ -0,0 +1,76 @@
+package software.amazon.logs.loggroup;
+
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.InvalidOperationException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.InvalidParameterException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.OperationAbortedException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceAlreadyExistsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ServiceUnavailableException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.UnrecognizedClientException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maps the CloudWatch Logs errors a handler can expect to the error codes that
+ * CloudFormation reports, so the handler returns them as a failed ProgressEvent
+ * rather than throwing. A group that is not found is routine in drift detection
+ * and deletes, and no exception is created for it here.
+ *
+ * Throttling is not in the table: {@link ApiInvoker} retries it and the handlers
+ * turn what is left into {@link ThrottledProgress}.
+ */
+final class HandlerErrors {
+    private static final Map<Class<? extends CloudWatchLogsException>, HandlerErrorCode> ERROR_CODES;
+
+    static {
+        final Map<Class<? extends CloudWatchLogsException>, HandlerErrorCode> errorCodes = new HashMap<>();
+        errorCodes.put(ResourceNotFoundException.class, HandlerErrorCode.NotFound);
+        errorCodes.put(ResourceAlreadyExistsException.class, HandlerErrorCode.AlreadyExists);
+        errorCodes.put(InvalidParameterException.class, HandlerErrorCode.InvalidRequest);
+        errorCodes.put(InvalidOperationException.class, HandlerErrorCode.InvalidRequest);
+        errorCodes.put(OperationAbortedException.class, HandlerErrorCode.ResourceConflict);
+        errorCodes.put(UnrecognizedClientException.class, HandlerErrorCode.InvalidCredentials);
+        errorCodes.put(ServiceUnavailableException.class, HandlerErrorCode.ServiceInternalError);
+        ERROR_CODES = Collections.unmodifiableMap(errorCodes);
+    }
+
+    private HandlerErrors() {}
+
+    /**
+     * The error code for {@code e}, or null when it is not one a handler expects.
+     */
+    static HandlerErrorCode errorCode(final Throwable e) {
+        return ERROR_CODES.get(e.getClass());
+    }
+
+    static ProgressEvent<ResourceModel, CallbackContext> notFound(final ResourceModel model) {
+        return ProgressEvent.failed(null, null, HandlerErrorCode.NotFound, message(HandlerErrorCode.NotFound, model));
+    }
+
+    /**
+     * A failed event for an error in the table. Any other error is rethrown.
+     */
+    static ProgressEvent<ResourceModel, CallbackContext> failed(final ResourceModel model,
+                                                                final CloudWatchLogsException e) {
+        final HandlerErrorCode errorCode = errorCode(e);
+        if (errorCode == null) {
+            throw e;
+        }
+        if (errorCode == HandlerErrorCode.NotFound || errorCode == HandlerErrorCode.AlreadyExists) {
+            return ProgressEvent.failed(null, null, errorCode, message(errorCode, model));
+        }
+        return ProgressEvent.failed(null, null, errorCode, e.getMessage());
+    }
+
+    private static String message(final HandlerErrorCode errorCode, final ResourceModel model) {
+        final ResourceModel nullSafeModel = model == null ? ResourceModel.builder().build() : model;
+        return String.format(errorCode.getMessage(), ResourceModel.TYPE_NAME,
+            Objects.toString(nullSafeModel.getPrimaryIdentifier()));
+    }
+}
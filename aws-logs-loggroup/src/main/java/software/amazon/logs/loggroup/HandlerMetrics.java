@@ -0,0 +1,312 @@
+package software.amazon.logs.loggroup;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Collects the timing and call counts of one handler invocation and writes them as
+ * CloudWatch Embedded Metric Format lines to stdout. That is the Lambda function log,
+ * where CloudWatch extracts the metrics without any extra network calls. The handler
+ * {@code Logger} is not used: it publishes each line with its own PutLogEvents call,
+ * and without the EMF header, so CloudWatch would not extract them.
+ *
+ * One line is written for the handler, and one per API operation it called.
+ * Latencies are written as value arrays, which CloudWatch aggregates into a
+ * distribution; EMF accepts at most {@link #MAX_VALUES_PER_METRIC} values per
+ * metric, so longer series are split across lines.
+ */
+class HandlerMetrics {
+    static final String NAMESPACE = "CloudFormation/AWS-Logs-LogGroup";
+    static final int MAX_VALUES_PER_METRIC = 100;
+
+    private final String handler;
+    private final Map<String, OperationMetrics> operations = new TreeMap<>();
+    private Long stabilizationPolls;
+    private Long stabilizationMillis;
+    private Long cacheHits;
+    private Long cacheMisses;
+    private Long replayedSteps;
+
+    HandlerMetrics(final String handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Runs a handler body and writes its metrics to stdout, whether the body returns
+     * or throws.
+     */
+    static ProgressEvent<ResourceModel, CallbackContext> instrument(
+        final String handler,
+        final Function<HandlerMetrics, ProgressEvent<ResourceModel, CallbackContext>> body) {
+        return instrument(handler, System.out::println, body);
+    }
+
+    static ProgressEvent<ResourceModel, CallbackContext> instrument(
+        final String handler,
+        final Consumer<String> sink,
+        final Function<HandlerMetrics, ProgressEvent<ResourceModel, CallbackContext>> body) {
+
+        final HandlerMetrics metrics = new HandlerMetrics(handler);
+        final long start = System.nanoTime();
+        String outcome = "EXCEPTION";
+        try {
+            final ProgressEvent<ResourceModel, CallbackContext> progress = body.apply(metrics);
+            outcome = String.valueOf(progress.getErrorCode() == null ? progress.getStatus() : progress.getErrorCode());
+            return progress;
+        } catch (final RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            final long latencyMillis = (System.nanoTime() - start) / 1_000_000;
+            metrics.toEmfLines(System.currentTimeMillis(), latencyMillis, outcome).forEach(sink);
+        }
+    }
+
+    synchronized void recordCall(final String operation,
+                                 final long latencyMillis,
+                                 final long bytesOut,
+                                 final long bytesIn) {
+        final OperationMetrics metrics = operation(operation);
+        metrics.calls++;
+        metrics.latencies.add(latencyMillis);
+        metrics.bytesOut += bytesOut;
+        metrics.bytesIn += bytesIn;
+    }
+
+    synchronized void recordThrottle(final String operation) {
+        operation(operation).throttles++;
+    }
+
+    synchronized void recordRetry(final String operation) {
+        operation(operation).retries++;
+    }
+
+    synchronized void recordError(final String operation) {
+        operation(operation).errors++;
+    }
+
+    /**
+     * Polls and elapsed time from the first post-create poll until the resource
+     * was visible. Reported on the handler line only when recorded.
+     */
+    synchronized void recordStabilization(final long polls, final long elapsedMillis) {
+        this.stabilizationPolls = polls;
+        this.stabilizationMillis = elapsedMillis;
+    }
+
+    /**
+     * Counts a {@link LogGroupCache} lookup. Reported on the handler line only when
+     * the invocation used the cache.
+     */
+    synchronized void recordCacheLookup(final boolean hit) {
+        if (cacheHits == null) {
+            cacheHits = 0L;
+            cacheMisses = 0L;
+        }
+        if (hit) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+        }
+    }
+
+    /**
+     * Counts a step skipped because {@link IdempotencyLedger} shows the request
+     * already completed it. Reported on the handler line only when there was one.
+     */
+    synchronized void recordReplayedStep() {
+        replayedSteps = replayedSteps == null ? 1 : replayedSteps + 1;
+    }
+
+    /**
+     * Builds the EMF lines for this invocation. {@code outcome} is the progress
+     * status, the error code of a failed event, or the exception class when the
+     * handler threw.
+     */
+    synchronized List<String> toEmfLines(final long timestampMillis,
+                                         final long handlerLatencyMillis,
+                                         final String outcome) {
+        final List<String> lines = new ArrayList<>();
+
+        final List<JSONObject> handlerMetrics = new ArrayList<>();
+        handlerMetrics.add(metric("Latency", "Milliseconds"));
+        handlerMetrics.add(metric("Errors", "Count"));
+        handlerMetrics.add(metric("ApiCalls", "Count"));
+        if (stabilizationPolls != null) {
+            handlerMetrics.add(metric("StabilizationPolls", "Count"));
+            handlerMetrics.add(metric("StabilizationLatency", "Milliseconds"));
+        }
+        if (cacheHits != null) {
+            handlerMetrics.add(metric("CacheHits", "Count"));
+            handlerMetrics.add(metric("CacheMisses", "Count"));
+        }
+        if (replayedSteps != null) {
+            handlerMetrics.add(metric("ReplayedSteps", "Count"));
+        }
+        final JSONObject handlerLine = emfDocument(timestampMillis, new String[] {"Handler"},
+            handlerMetrics.toArray(new JSONObject[0]));
+        handlerLine.put("Handler", handler);
+        handlerLine.put("Outcome", outcome);
+        handlerLine.put("Latency", handlerLatencyMillis);
+        handlerLine.put("Errors", isProgressStatus(outcome) ? 0 : 1);
+        handlerLine.put("ApiCalls", operations.values().stream().mapToLong(m -> m.calls).sum());
+        handlerLine.putOpt("StabilizationPolls", stabilizationPolls);
+        handlerLine.putOpt("StabilizationLatency", stabilizationMillis);
+        handlerLine.putOpt("CacheHits", cacheHits);
+        handlerLine.putOpt("CacheMisses", cacheMisses);
+        handlerLine.putOpt("ReplayedSteps", replayedSteps);
+        lines.add(handlerLine.toString());
+
+        for (final Map.Entry<String, OperationMetrics> entry : operations.entrySet()) {
+            final OperationMetrics metrics = entry.getValue();
+            final List<Long> latencies = metrics.latencies;
+            int from = 0;
+            do {
+                final int to = Math.min(latencies.size(), from + MAX_VALUES_PER_METRIC);
+                final JSONObject line;
+                if (from == 0) {
+                    line = emfDocument(timestampMillis, new String[] {"Handler", "Operation"},
+                        metric("Latency", "Milliseconds"),
+                        metric("Calls", "Count"),
+                        metric("Throttles", "Count"),
+                        metric("Retries", "Count"),
+                        metric("Errors", "Count"),
+                        metric("BytesOut", "Bytes"),
+                        metric("BytesIn", "Bytes"));
+                    line.put("Calls", metrics.calls);
+                    line.put("Throttles", metrics.throttles);
+                    line.put("Retries", metrics.retries);
+                    line.put("Errors", metrics.errors);
+                    line.put("BytesOut", metrics.bytesOut);
+                    line.put("BytesIn", metrics.bytesIn);
+                } else {
+                    line = emfDocument(timestampMillis, new String[] {"Handler", "Operation"},
+                        metric("Latency", "Milliseconds"));
+                }
+                line.put("Handler", handler);
+                line.put("Operation", entry.getKey());
+                line.put("Latency", new JSONArray(latencies.subList(from, to)));
+                lines.add(line.toString());
+                from = to;
+            } while (from < latencies.size());
+        }
+        return lines;
+    }
+
+    /**
+     * Approximate wire size of an SDK request or response: the UTF-8 length of every
+     * member value, without the JSON framing around it.
+     */
+    static long payloadBytes(final Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof SdkPojo) {
+            long bytes = 0;
+            for (final SdkField<?> field : ((SdkPojo) value).sdkFields()) {
+                bytes += payloadBytes(field.getValueOrDefault(value));
+            }
+            return bytes;
+        }
+        if (value instanceof Collection) {
+            long bytes = 0;
+            for (final Object element : (Collection<?>) value) {
+                bytes += payloadBytes(element);
+            }
+            return bytes;
+        }
+        if (value instanceof Map) {
+            long bytes = 0;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                bytes += payloadBytes(entry.getKey()) + payloadBytes(entry.getValue());
+            }
+            return bytes;
+        }
+        if (value instanceof CharSequence) {
+            return utf8Length((CharSequence) value);
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return decimalLength(((Number) value).longValue());
+        }
+        return utf8Length(value.toString());
+    }
+
+    static int decimalLength(final long value) {
+        int length = value < 0 ? 2 : 1;
+        for (long rest = value; rest <= -10 || rest >= 10; rest /= 10) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Counts UTF-8 bytes without encoding, so measuring a large page does not
+     * allocate a copy of every string in it. Agrees with String.getBytes.
+     */
+    static long utf8Length(final CharSequence value) {
+        long bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // An unpaired surrogate is encoded as '?', as String.getBytes does.
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private OperationMetrics operation(final String operation) {
+        return operations.computeIfAbsent(operation, name -> new OperationMetrics());
+    }
+
+    private static boolean isProgressStatus(final String outcome) {
+        return "SUCCESS".equals(outcome) || "IN_PROGRESS".equals(outcome);
+    }
+
+    private static JSONObject metric(final String name, final String unit) {
+        return new JSONObject().put("Name", name).put("Unit", unit);
+    }
+
+    private static JSONObject emfDocument(final long timestampMillis,
+                                          final String[] dimensions,
+                                          final JSONObject... metrics) {
+        final JSONObject directive = new JSONObject()
+            .put("Namespace", NAMESPACE)
+            .put("Dimensions", new JSONArray().put(new JSONArray(dimensions)))
+            .put("Metrics", new JSONArray(metrics));
+        return new JSONObject().put("_aws", new JSONObject()
+            .put("Timestamp", timestampMillis)
+            .put("CloudWatchMetrics", new JSONArray().put(directive)));
+    }
+
+    private static class OperationMetrics {
+        private long calls;
+        private long throttles;
+        private long retries;
+        private long errors;
+        private long bytesOut;
+        private long bytesIn;
+        private final List<Long> latencies = new ArrayList<>();
+    }
+}
@@ -0,0 +1,137 @@
+package software.amazon.logs.loggroup;
+
+import lombok.Value;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which mutating steps each request has completed, keyed by its client
+ * request token, so that a request CloudFormation sends again skips the calls that
+ * already succeeded in this container. Steps a handler hands back as IN_PROGRESS
+ * are also carried in the {@link CallbackContext}; this covers the replays that
+ * arrive without one, after an invocation that timed out or whose response was
+ * lost.
+ *
+ * Entries expire after a fixed time to live, and the least recently used request
+ * is evicted once the ledger is full. Requests without a token are not recorded.
+ */
+class IdempotencyLedger {
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long replayedSteps;
+
+    IdempotencyLedger(final Duration ttl, final int maxEntries, final LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    static IdempotencyLedger shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static class SharedHolder {
+        static final IdempotencyLedger INSTANCE =
+            new IdempotencyLedger(DEFAULT_TTL, DEFAULT_MAX_ENTRIES, System::nanoTime);
+    }
+
+    enum Step {
+        LOG_GROUP_CREATED,
+        RETENTION_POLICY_APPLIED,
+        RETENTION_POLICY_UPDATED,
+        LOG_GROUP_DELETED
+    }
+
+    /**
+     * Whether the request has already completed {@code step}. Each step found is
+     * recorded as replayed.
+     */
+    boolean isCompleted(final Key key, final Step step, final HandlerMetrics metrics) {
+        final boolean completed = lookUp(key, step);
+        if (completed) {
+            metrics.recordReplayedStep();
+        }
+        return completed;
+    }
+
+    private synchronized boolean lookUp(final Key key, final Step step) {
+        if (key == null) {
+            return false;
+        }
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAtNanos >= 0) {
+            entries.remove(key);
+            return false;
+        }
+        final boolean completed = entry.steps.contains(step);
+        if (completed) {
+            replayedSteps++;
+        }
+        return completed;
+    }
+
+    synchronized void complete(final Key key, final Step step) {
+        if (key == null) {
+            return;
+        }
+        final Entry entry = entries.computeIfAbsent(key, ignored -> new Entry(EnumSet.noneOf(Step.class)));
+        entry.steps.add(step);
+        entry.expiresAtNanos = nanoClock.getAsLong() + ttlNanos;
+        if (entries.size() > maxEntries) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long replayedSteps() {
+        return replayedSteps;
+    }
+
+    /**
+     * The log group name is part of the key, so a token reused for another group
+     * does not match.
+     */
+    @Value
+    static class Key {
+        private final String awsAccountId;
+        private final String region;
+        private final String clientRequestToken;
+        private final String logGroupName;
+
+        /**
+         * Null when the request has no token.
+         */
+        static Key of(final ResourceHandlerRequest<ResourceModel> request, final ResourceModel model) {
+            if (request.getClientRequestToken() == null) {
+                return null;
+            }
+            return new Key(request.getAwsAccountId(), request.getRegion(), request.getClientRequestToken(),
+                model == null ? null : model.getLogGroupName());
+        }
+    }
+
+    private static class Entry {
+        private final Set<Step> steps;
+        private long expiresAtNanos;
+
+        Entry(final Set<Step> steps) {
+            this.steps = steps;
+        }
+    }
+}
@@ -5,24 +5,141 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
 import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
 public class ListHandler extends BaseHandler<CallbackContext> {
+    static final String PAGE_LIMIT_ENVIRONMENT_VARIABLE = "LIST_PAGE_LIMIT";
+    static final String SHARD_CONCURRENCY_ENVIRONMENT_VARIABLE = "LIST_SHARD_CONCURRENCY";
+    private static final int MAX_SHARD_CONCURRENCY = 32;
+    private static final int DEFAULT_MAX_RESULTS = 1000;
+    private static final Duration DEFAULT_TIME_BUDGET = Duration.ofSeconds(10);
+
+    private final Supplier<CloudWatchLogsClient> clientSupplier;
+    private final Supplier<CloudWatchLogsAsyncClient> asyncClientSupplier;
+    private final int pageLimit;
+    private final int maxResults;
+    private final Duration timeBudget;
+    private final int shardConcurrency;
+    private ShardedLogGroupLister shardedLister;
+
+    public ListHandler() {
+        this(ClientBuilder::getClient, ClientBuilder::getAsyncClient,
+            parseSetting(System.getenv(PAGE_LIMIT_ENVIRONMENT_VARIABLE), 1, Translator.MAX_LIST_PAGE_LIMIT,
+                Translator.MAX_LIST_PAGE_LIMIT),
+            DEFAULT_MAX_RESULTS,
+            DEFAULT_TIME_BUDGET,
+            parseSetting(System.getenv(SHARD_CONCURRENCY_ENVIRONMENT_VARIABLE), 1, MAX_SHARD_CONCURRENCY, 1));
+    }
+
+    ListHandler(final int pageLimit, final int maxResults, final Duration timeBudget) {
+        this(pageLimit, maxResults, timeBudget, 1);
+    }
 
+    ListHandler(final int pageLimit, final int maxResults, final Duration timeBudget, final int shardConcurrency) {
+        this(ClientBuilder::getClient, ClientBuilder::getAsyncClient, pageLimit, maxResults, timeBudget,
+            shardConcurrency);
+    }
+
+    ListHandler(final Supplier<CloudWatchLogsClient> clientSupplier,
+                final Supplier<CloudWatchLogsAsyncClient> asyncClientSupplier,
+                final int pageLimit,
+                final int maxResults,
+                final Duration timeBudget,
+                final int shardConcurrency) {
+        this.clientSupplier = clientSupplier;
+        this.asyncClientSupplier = asyncClientSupplier;
+        this.pageLimit = pageLimit;
+        this.maxResults = maxResults;
+        this.timeBudget = timeBudget;
+        this.shardConcurrency = shardConcurrency;
+    }
+
+    /**
+     * Pulls pages until the response holds as many models as another page could
+     * still fit under the result budget, the time budget or the invocation's
+     * {@link Deadline} is spent, or the listing is exhausted. Whatever remains is
+     * handed back as the continuation token. At least one page is always fetched, so
+     * a listing resumed near the deadline still makes progress.
+     *
+     * With a shard concurrency above one, a new listing is split by leading name
+     * character and the shards are paged concurrently on the async client. A sharded
+     * continuation token is always resumed as a sharded listing.
+     */
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
+        return HandlerMetrics.instrument("ListHandler",
+            metrics -> handleRequest(proxy, request, callbackContext, logger, metrics));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+        final AmazonWebServicesClientProxy proxy,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final CallbackContext callbackContext,
+        final Logger logger,
+        final HandlerMetrics metrics) {
+
+        final Deadline deadline = Deadline.of(proxy).within(timeBudget);
+        final String requestToken = request.getNextToken();
+        if (ShardedLogGroupLister.isShardedToken(requestToken) || (requestToken == null && shardConcurrency > 1)) {
+            final ShardedLogGroupLister.Page page =
+                getShardedLister().list(proxy, asyncClientSupplier.get(), requestToken, pageLimit, maxResults,
+                    deadline, metrics);
+            return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                    .status(OperationStatus.SUCCESS)
+                    .resourceModels(page.getModels())
+                    .nextToken(page.getNextToken())
+                    .build();
+        }
+
+        final List<ResourceModel> models = new ArrayList<>();
+        String nextToken = requestToken;
+        do {
+            final DescribeLogGroupsResponse response =
+                    ApiInvoker.shared().invoke(proxy, Translator.translateToListRequest(nextToken, pageLimit),
+                        clientSupplier.get()::describeLogGroups, metrics);
+            Translator.streamForList(response).forEach(models::add);
+            nextToken = response.nextToken();
+        } while (nextToken != null
+            && models.size() + pageLimit <= maxResults
+            && !deadline.isExpired());
 
-        final DescribeLogGroupsResponse response =
-                proxy.injectCredentialsAndInvokeV2(Translator.translateToListRequest(request.getNextToken()),
-                    ClientBuilder.getClient()::describeLogGroups);
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .status(OperationStatus.SUCCESS)
-                .resourceModels(Translator.translateForList(response))
-                .nextToken(response.nextToken())
+                .resourceModels(models)
+                .nextToken(nextToken)
                 .build();
     }
+
+    private synchronized ShardedLogGroupLister getShardedLister() {
+        if (shardedLister == null) {
+            shardedLister = new ShardedLogGroupLister(shardConcurrency);
+        }
+        return shardedLister;
+    }
+
+    /**
+     * Reads an integer setting from an environment variable value, clamped to
+     * [min, max]. Missing or malformed values fall back to the default.
+     */
+    static int parseSetting(final String value, final int min, final int max, final int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(min, Math.min(max, Integer.parseInt(value.trim())));
+        } catch (final NumberFormatException e) {
+            return defaultValue;
+        }
+    }
 }
@@ -0,0 +1,157 @@
+package software.amazon.logs.loggroup;
+
+import lombok.Value;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps recently read log groups so that repeated reads of the same group in a
+ * warm container skip DescribeLogGroups. Entries are keyed by account, region and
+ * name, expire after a fixed time to live, and the least recently used entry is
+ * evicted once the cache is full. Only groups that were found are kept.
+ *
+ * Every handler that changes a log group invalidates its entry once the change is
+ * made. A read that overlaps any invalidation is not stored, so a value read before
+ * a change is never cached after it. Changes made outside this container are seen
+ * only once the entry expires, so the shared cache is off unless
+ * {@value #TTL_ENVIRONMENT_VARIABLE} sets a time to live.
+ *
+ * Concurrent misses for the same key share one DescribeLogGroups call through a
+ * {@link SingleFlight}, whether or not the cache is on. An invalidation also stops
+ * later readers from joining a call already in flight.
+ */
+class LogGroupCache {
+    static final String TTL_ENVIRONMENT_VARIABLE = "READ_CACHE_TTL_SECONDS";
+    static final String MAX_ENTRIES_ENVIRONMENT_VARIABLE = "READ_CACHE_MAX_ENTRIES";
+    private static final int DEFAULT_TTL_SECONDS = 0;
+    private static final int MAX_TTL_SECONDS = 300;
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final int MAX_MAX_ENTRIES = 100_000;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final SingleFlight<Key, Optional<LogGroup>> reads = new SingleFlight<>();
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    LogGroupCache(final Duration ttl, final int maxEntries, final LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    static LogGroupCache shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * A time to live of zero turns the cache off.
+     */
+    private static class SharedHolder {
+        static final LogGroupCache INSTANCE = new LogGroupCache(
+            Duration.ofSeconds(ListHandler.parseSetting(System.getenv(TTL_ENVIRONMENT_VARIABLE), 0, MAX_TTL_SECONDS,
+                DEFAULT_TTL_SECONDS)),
+            ListHandler.parseSetting(System.getenv(MAX_ENTRIES_ENVIRONMENT_VARIABLE), 1, MAX_MAX_ENTRIES,
+                DEFAULT_MAX_ENTRIES),
+            System::nanoTime);
+    }
+
+    /**
+     * Returns the cached group if it has not expired. Otherwise calls {@code loader},
+     * or joins a concurrent caller's call, and caches what it finds. Each lookup is
+     * recorded as a hit or a miss.
+     */
+    Optional<LogGroup> read(final Key key, final HandlerMetrics metrics, final Supplier<Optional<LogGroup>> loader) {
+        if (ttlNanos <= 0) {
+            return reads.run(key, loader);
+        }
+        final LogGroup cached;
+        final long invalidationsBeforeLoad;
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (entry != null && nanoClock.getAsLong() - entry.expiresAtNanos >= 0) {
+                entries.remove(key);
+            }
+            cached = entries.containsKey(key) ? entry.logGroup : null;
+            if (cached != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            invalidationsBeforeLoad = invalidations;
+        }
+        metrics.recordCacheLookup(cached != null);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        final Optional<LogGroup> logGroup = reads.run(key, loader);
+        logGroup.ifPresent(loaded -> store(key, loaded, invalidationsBeforeLoad));
+        return logGroup;
+    }
+
+    private synchronized void store(final Key key, final LogGroup logGroup, final long invalidationsBeforeLoad) {
+        if (invalidations != invalidationsBeforeLoad) {
+            return;
+        }
+        entries.put(key, new Entry(logGroup, nanoClock.getAsLong() + ttlNanos));
+        if (entries.size() > maxEntries) {
+            entries.remove(entries.keySet().iterator().next());
+            evictions++;
+        }
+    }
+
+    synchronized void invalidate(final Key key) {
+        invalidations++;
+        entries.remove(key);
+        reads.forget(key);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    long coalescedReads() {
+        return reads.shared();
+    }
+
+    @Value
+    static class Key {
+        private final String awsAccountId;
+        private final String region;
+        private final String logGroupName;
+
+        static Key of(final ResourceHandlerRequest<ResourceModel> request, final ResourceModel model) {
+            return new Key(request.getAwsAccountId(), request.getRegion(),
+                model == null ? null : model.getLogGroupName());
+        }
+    }
+
+    @Value
+    private static class Entry {
+        private final LogGroup logGroup;
+        private final long expiresAtNanos;
+    }
+}
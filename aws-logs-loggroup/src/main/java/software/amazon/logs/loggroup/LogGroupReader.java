@@ -0,0 +1,81 @@
+package software.amazon.logs.loggroup;
+
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Looks up a single log group by its exact name.
+ */
+final class LogGroupReader {
+    private LogGroupReader() {}
+
+    /**
+     * Pages a prefix scan on the model's name only until the exactly named group
+     * turns up, or until the sorted results have moved past where it would be.
+     */
+    static Optional<LogGroup> describeExactLogGroup(final AmazonWebServicesClientProxy proxy,
+                                                    final CloudWatchLogsClient client,
+                                                    final ResourceModel model,
+                                                    final HandlerMetrics metrics) {
+        String nextToken = null;
+        do {
+            final DescribeLogGroupsResponse response;
+            try {
+                response = ApiInvoker.shared().invoke(proxy, Translator.translateToReadRequest(model, nextToken),
+                    client::describeLogGroups, metrics);
+            } catch (final ResourceNotFoundException e) {
+                return Optional.empty();
+            }
+
+            final Optional<LogGroup> logGroup = Translator.findExactMatch(response, model.getLogGroupName());
+            if (logGroup.isPresent() || Translator.isPastName(response, model.getLogGroupName())) {
+                return logGroup;
+            }
+            nextToken = response.nextToken();
+        } while (nextToken != null);
+
+        return Optional.empty();
+    }
+
+    /**
+     * The same scan on the async client, with each page requested when the previous
+     * one has arrived.
+     */
+    static CompletableFuture<Optional<LogGroup>> describeExactLogGroupAsync(final AmazonWebServicesClientProxy proxy,
+                                                                          final CloudWatchLogsAsyncClient client,
+                                                                          final ResourceModel model,
+                                                                          final HandlerMetrics metrics) {
+        return describeExactLogGroupAsync(proxy, client, model, null, metrics);
+    }
+
+    private static CompletableFuture<Optional<LogGroup>> describeExactLogGroupAsync(
+        final AmazonWebServicesClientProxy proxy,
+        final CloudWatchLogsAsyncClient client,
+        final ResourceModel model,
+        final String nextToken,
+        final HandlerMetrics metrics) {
+        return ApiInvoker.shared().invokeAsync(proxy, Translator.translateToReadRequest(model, nextToken),
+                client::describeLogGroups, metrics)
+            .thenCompose(response -> {
+                final Optional<LogGroup> logGroup = Translator.findExactMatch(response, model.getLogGroupName());
+                if (logGroup.isPresent() || Translator.isPastName(response, model.getLogGroupName())
+                        || response.nextToken() == null) {
+                    return CompletableFuture.completedFuture(logGroup);
+                }
+                return describeExactLogGroupAsync(proxy, client, model, response.nextToken(), metrics);
+            })
+            .exceptionally(error -> {
+                if (ApiInvoker.unwrap(error) instanceof ResourceNotFoundException) {
+                    return Optional.empty();
+                }
+                throw ApiInvoker.unwrap(error);
+            });
+    }
+}
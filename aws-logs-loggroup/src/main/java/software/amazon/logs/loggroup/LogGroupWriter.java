@@ -0,0 +1,75 @@
+package software.amazon.logs.loggroup;
+
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceAlreadyExistsException;
+import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Makes the calls that create a log group and set its retention, blocking on the
+ * sync client or as futures on the async client. A group that is not found fails
+ * with the service's ResourceNotFoundException on either path, for the handler to
+ * report through {@link HandlerErrors}.
+ */
+class LogGroupWriter {
+    private final Supplier<CloudWatchLogsClient> clientSupplier;
+    private final Supplier<CloudWatchLogsAsyncClient> asyncClientSupplier;
+
+    LogGroupWriter(final Supplier<CloudWatchLogsClient> clientSupplier) {
+        this(clientSupplier, ClientBuilder::getAsyncClient);
+    }
+
+    LogGroupWriter(final Supplier<CloudWatchLogsClient> clientSupplier,
+                   final Supplier<CloudWatchLogsAsyncClient> asyncClientSupplier) {
+        this.clientSupplier = clientSupplier;
+        this.asyncClientSupplier = asyncClientSupplier;
+    }
+
+    void putRetentionPolicy(final AmazonWebServicesClientProxy proxy,
+                            final ResourceModel model,
+                            final HandlerMetrics metrics) {
+        ApiInvoker.shared().invoke(proxy, Translator.translateToPutRetentionPolicyRequest(model),
+            clientSupplier.get()::putRetentionPolicy, metrics);
+    }
+
+    void deleteRetentionPolicy(final AmazonWebServicesClientProxy proxy,
+                               final ResourceModel model,
+                               final HandlerMetrics metrics) {
+        ApiInvoker.shared().invoke(proxy, Translator.translateToDeleteRetentionPolicyRequest(model),
+            clientSupplier.get()::deleteRetentionPolicy, metrics);
+    }
+
+    CompletableFuture<Void> createLogGroupAsync(final AmazonWebServicesClientProxy proxy,
+                                                final ResourceModel model,
+                                                final HandlerMetrics metrics) {
+        return ApiInvoker.shared().invokeAsync(proxy, Translator.translateToCreateRequest(model),
+                asyncClientSupplier.get()::createLogGroup, metrics)
+            .handle((response, error) -> {
+                if (error != null && ApiInvoker.unwrap(error) instanceof ResourceAlreadyExistsException) {
+                    throw new CfnAlreadyExistsException(ResourceModel.TYPE_NAME,
+                        Objects.toString(model.getPrimaryIdentifier()));
+                }
+                return succeeded(error);
+            });
+    }
+
+    CompletableFuture<Void> putRetentionPolicyAsync(final AmazonWebServicesClientProxy proxy,
+                                                    final ResourceModel model,
+                                                    final HandlerMetrics metrics) {
+        return ApiInvoker.shared().invokeAsync(proxy, Translator.translateToPutRetentionPolicyRequest(model),
+                asyncClientSupplier.get()::putRetentionPolicy, metrics)
+            .handle((response, error) -> succeeded(error));
+    }
+
+    private static Void succeeded(final Throwable error) {
+        if (error != null) {
+            throw ApiInvoker.unwrap(error);
+        }
+        return null;
+    }
+}
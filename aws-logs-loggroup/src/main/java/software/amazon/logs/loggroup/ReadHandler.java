@@ -4,45 +4,65 @@ import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
-import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
-import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
 
-import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 public class ReadHandler extends BaseHandler<CallbackContext> {
 
+    private final Supplier<CloudWatchLogsClient> clientSupplier;
+    private final LogGroupCache cache;
+
+    public ReadHandler() {
+        this(ClientBuilder::getClient);
+    }
+
+    ReadHandler(final Supplier<CloudWatchLogsClient> clientSupplier) {
+        this(clientSupplier, LogGroupCache.shared());
+    }
+
+    ReadHandler(final Supplier<CloudWatchLogsClient> clientSupplier, final LogGroupCache cache) {
+        this.clientSupplier = clientSupplier;
+        this.cache = cache;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
+        return HandlerMetrics.instrument("ReadHandler",
+            metrics -> handleRequest(proxy, request, callbackContext, logger, metrics));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+        final AmazonWebServicesClientProxy proxy,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final CallbackContext callbackContext,
+        final Logger logger,
+        final HandlerMetrics metrics) {
 
         final ResourceModel model = request.getDesiredResourceState();
 
         if (model == null || model.getLogGroupName() == null) {
-            throwNotFoundException(model);
+            return HandlerErrors.notFound(model);
         }
 
-        DescribeLogGroupsResponse response = null;
+        final Optional<LogGroup> logGroup;
         try {
-            response = proxy.injectCredentialsAndInvokeV2(Translator.translateToReadRequest(model),
-                ClientBuilder.getClient()::describeLogGroups);
-        } catch (final ResourceNotFoundException e) {
-            throwNotFoundException(model);
+            logGroup = cache.read(LogGroupCache.Key.of(request, model), metrics,
+                () -> LogGroupReader.describeExactLogGroup(proxy, clientSupplier.get(), model, metrics));
+        } catch (final CloudWatchLogsException e) {
+            return HandlerErrors.failed(model, e);
         }
-
-        final ResourceModel modelFromReadResult = Translator.translateForRead(response);
-        if (modelFromReadResult.getLogGroupName() == null) {
-            throwNotFoundException(model);
+        if (!logGroup.isPresent()) {
+            return HandlerErrors.notFound(model);
         }
 
-        return ProgressEvent.defaultSuccessHandler(modelFromReadResult);
-    }
-
-    private void throwNotFoundException(final ResourceModel model) {
-        final ResourceModel nullSafeModel = model == null ? ResourceModel.builder().build() : model;
-        throw new software.amazon.cloudformation.exceptions.ResourceNotFoundException(ResourceModel.TYPE_NAME,
-            Objects.toString(nullSafeModel.getPrimaryIdentifier()));
+        return ProgressEvent.defaultSuccessHandler(Translator.translateForRead(logGroup.get()));
     }
 }
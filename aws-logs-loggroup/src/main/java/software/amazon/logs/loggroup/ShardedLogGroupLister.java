@@ -0,0 +1,139 @@
+package software.amazon.logs.loggroup;
+
+import lombok.Value;
+import org.json.JSONException;
+import org.json.JSONObject;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Lists log groups as independent shards, one per leading character allowed by the
+ * LogGroupName pattern, and pages the shards concurrently on the async client,
+ * with at most {@code concurrency} requests in flight.
+ *
+ * Each round fetches one page from as many pending shards as the result budget
+ * allows, and the first round always fetches at least one, with pages no larger
+ * than the budget, so every call makes progress. The continuation token records
+ * the service token of every shard that is not yet exhausted, so a listing can
+ * resume in a later invocation.
+ */
+class ShardedLogGroupLister {
+    /** Leading characters allowed by ^[.\-_/#A-Za-z0-9], in ASCII order. */
+    static final String SHARD_CHARACTERS = "#-./0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ_abcdefghijklmnopqrstuvwxyz";
+    static final String TOKEN_PREFIX = "shards:";
+    private static final String NOT_STARTED = "";
+
+    private final int concurrency;
+
+    ShardedLogGroupLister(final int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    static boolean isShardedToken(final String nextToken) {
+        return nextToken != null && nextToken.startsWith(TOKEN_PREFIX);
+    }
+
+    Page list(final AmazonWebServicesClientProxy proxy,
+              final CloudWatchLogsAsyncClient client,
+              final String nextToken,
+              final int pageLimit,
+              final int maxResults,
+              final Deadline deadline,
+              final HandlerMetrics metrics) {
+        final TreeMap<String, String> pendingShards = decodeToken(nextToken);
+        final List<ResourceModel> models = new ArrayList<>();
+        final int shardPageLimit = Math.max(1, Math.min(pageLimit, maxResults));
+
+        do {
+            final int pagesInBudget = (maxResults - models.size()) / shardPageLimit;
+            final int shardsThisRound = Math.min(pendingShards.size(), models.isEmpty()
+                ? Math.max(1, pagesInBudget)
+                : pagesInBudget);
+            if (shardsThisRound == 0) {
+                break;
+            }
+            final List<String> shards = pendingShards.keySet().stream()
+                    .limit(shardsThisRound)
+                    .collect(Collectors.toList());
+            final List<DescribeLogGroupsResponse> responses =
+                fetchPages(proxy, client, shards, pendingShards, shardPageLimit, metrics);
+
+            for (int i = 0; i < shards.size(); i++) {
+                final DescribeLogGroupsResponse response = responses.get(i);
+                Translator.streamForList(response).forEach(models::add);
+                if (response.nextToken() == null) {
+                    pendingShards.remove(shards.get(i));
+                } else {
+                    pendingShards.put(shards.get(i), response.nextToken());
+                }
+            }
+        } while (!pendingShards.isEmpty() && !deadline.isExpired());
+
+        models.sort(Comparator.comparing(ResourceModel::getLogGroupName,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return new Page(models, pendingShards.isEmpty() ? null : encodeToken(pendingShards));
+    }
+
+    private List<DescribeLogGroupsResponse> fetchPages(final AmazonWebServicesClientProxy proxy,
+                                                       final CloudWatchLogsAsyncClient client,
+                                                       final List<String> shards,
+                                                       final Map<String, String> pendingShards,
+                                                       final int pageLimit,
+                                                       final HandlerMetrics metrics) {
+        return ApiInvoker.join(AsyncFanOut.map(shards, concurrency, shard -> {
+            final String shardToken = pendingShards.get(shard);
+            final DescribeLogGroupsRequest request = Translator.translateToListRequest(shard,
+                    NOT_STARTED.equals(shardToken) ? null : shardToken, pageLimit);
+            return ApiInvoker.shared().invokeAsync(proxy, request, client::describeLogGroups, metrics);
+        }));
+    }
+
+    /**
+     * A token this class did not encode, or one that was altered, is an invalid
+     * request rather than an internal failure.
+     */
+    static TreeMap<String, String> decodeToken(final String nextToken) {
+        final TreeMap<String, String> pendingShards = new TreeMap<>();
+        if (nextToken == null) {
+            for (final char shard : SHARD_CHARACTERS.toCharArray()) {
+                pendingShards.put(String.valueOf(shard), NOT_STARTED);
+            }
+            return pendingShards;
+        }
+        try {
+            final String json = new String(Base64.getUrlDecoder().decode(nextToken.substring(TOKEN_PREFIX.length())),
+                    StandardCharsets.UTF_8);
+            final JSONObject shards = new JSONObject(json);
+            for (final String shard : shards.keySet()) {
+                pendingShards.put(shard, shards.getString(shard));
+            }
+        } catch (final IllegalArgumentException | JSONException e) {
+            throw new CfnInvalidRequestException(String.format("NextToken [%s] is malformed.", nextToken), e);
+        }
+        return pendingShards;
+    }
+
+    static String encodeToken(final Map<String, String> pendingShards) {
+        final String json = new JSONObject(pendingShards).toString();
+        return TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Value
+    static class Page {
+        private final List<ResourceModel> models;
+        private final String nextToken;
+    }
+}
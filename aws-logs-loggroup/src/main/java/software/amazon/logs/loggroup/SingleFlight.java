@@ -0,0 +1,50 @@
+package software.amazon.logs.loggroup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one call. The first caller
+ * makes it; any caller arriving while it is in flight waits for the same result or
+ * exception instead of making its own.
+ */
+final class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong shared = new AtomicLong();
+
+    V run(final K key, final Supplier<V> call) {
+        final CompletableFuture<V> mine = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            shared.incrementAndGet();
+            return ApiInvoker.join(existing);
+        }
+        try {
+            final V result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (final RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Callers arriving after this start a new call rather than join one already in
+     * flight, whose result may predate a change.
+     */
+    void forget(final K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * How many callers were answered by another caller's call.
+     */
+    long shared() {
+        return shared.get();
+    }
+}
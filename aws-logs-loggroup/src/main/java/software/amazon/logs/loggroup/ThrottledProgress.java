@@ -0,0 +1,42 @@
+package software.amazon.logs.loggroup;
+
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Once {@link ApiInvoker} has given up on a throttled call, a mutating handler hands
+ * the rest of its work back to CloudFormation as IN_PROGRESS with a callback delay,
+ * rather than holding the Lambda while the throttle lasts.
+ */
+final class ThrottledProgress {
+    static final int MAX_THROTTLE_CALLBACKS = 5;
+    private static final int BASE_DELAY_SECONDS = Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS;
+    private static final int MAX_DELAY_SECONDS = 300;
+
+    private ThrottledProgress() {}
+
+    static ProgressEvent<ResourceModel, CallbackContext> retryLater(final BaseHandlerException e,
+                                                                    final ResourceModel model,
+                                                                    final CallbackContext callbackContext) {
+        if (callbackContext.getThrottleCallbacks() >= MAX_THROTTLE_CALLBACKS) {
+            throw e;
+        }
+        callbackContext.setThrottleCallbacks(callbackContext.getThrottleCallbacks() + 1);
+        return ProgressEvent.defaultInProgressHandler(callbackContext,
+            callbackDelaySeconds(callbackContext.getThrottleCallbacks()), model);
+    }
+
+    /**
+     * Exponential in the number of throttled callbacks so far, capped, with up to
+     * half of the delay randomized so throttled handlers don't return in lockstep.
+     * Never under {@link Deadline#LOCAL_REINVOKE_THRESHOLD_SECONDS}, below which the
+     * wrapper would sleep through the delay in the same Lambda instead of ending it.
+     */
+    static int callbackDelaySeconds(final int throttleCallbacks) {
+        final int ceiling = Math.min(MAX_DELAY_SECONDS, BASE_DELAY_SECONDS << Math.min(throttleCallbacks - 1, 10));
+        final int jittered = ceiling - ThreadLocalRandom.current().nextInt(ceiling / 2 + 1);
+        return Math.max(Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS, jittered);
+    }
+}
@@ -5,6 +5,7 @@ import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupReques
 import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteRetentionPolicyRequest;
 import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
 import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
 import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyRequest;
 
 import java.util.Collection;
@@ -15,17 +16,42 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 final class Translator {
+    /**
+     * Results are ASCII-sorted by name, so an exact match is always the first group
+     * returned for its own name as a prefix. One group per page is all a read needs.
+     */
+    static final int READ_PAGE_LIMIT = 1;
+    /** The most groups DescribeLogGroups returns per page. */
+    static final int MAX_LIST_PAGE_LIMIT = 50;
+
     private Translator() {}
 
     static DescribeLogGroupsRequest translateToReadRequest(final ResourceModel model) {
+        return translateToReadRequest(model, null);
+    }
+
+    static DescribeLogGroupsRequest translateToReadRequest(final ResourceModel model, final String nextToken) {
         return DescribeLogGroupsRequest.builder()
                 .logGroupNamePrefix(model.getLogGroupName())
+                .limit(READ_PAGE_LIMIT)
+                .nextToken(nextToken)
                 .build();
     }
 
     static DescribeLogGroupsRequest translateToListRequest(final String nextToken) {
+        return translateToListRequest(nextToken, MAX_LIST_PAGE_LIMIT);
+    }
+
+    static DescribeLogGroupsRequest translateToListRequest(final String nextToken, final int limit) {
+        return translateToListRequest(null, nextToken, limit);
+    }
+
+    static DescribeLogGroupsRequest translateToListRequest(final String logGroupNamePrefix,
+                                                           final String nextToken,
+                                                           final int limit) {
         return DescribeLogGroupsRequest.builder()
-                .limit(50)
+                .logGroupNamePrefix(logGroupNamePrefix)
+                .limit(limit)
                 .nextToken(nextToken)
                 .build();
     }
@@ -39,6 +65,7 @@ final class Translator {
     static CreateLogGroupRequest translateToCreateRequest(final ResourceModel model) {
         return CreateLogGroupRequest.builder()
                 .logGroupName(model.getLogGroupName())
+                .kmsKeyId(model.getKmsKeyId())
                 .build();
     }
 
@@ -55,37 +82,66 @@ final class Translator {
             .build();
     }
 
+    /**
+     * Picks a single group from the response, the first one that has a name, and
+     * fills the whole model from it in one pass over the page.
+     */
     static ResourceModel translateForRead(final DescribeLogGroupsResponse response) {
-        final String logGroupName = streamOfOrEmpty(response.logGroups())
-                .map(software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup::logGroupName)
-                .filter(Objects::nonNull)
-                .findAny()
-                .orElse(null);
-        final String logGroupArn = streamOfOrEmpty(response.logGroups())
-            .map(software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup::arn)
-            .filter(Objects::nonNull)
-            .findAny()
-            .orElse(null);
-        final Integer retentionInDays = streamOfOrEmpty(response.logGroups())
-                .map(software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup::retentionInDays)
-                .filter(Objects::nonNull)
-                .findAny()
-                .orElse(null);
+        if (response.logGroups() != null) {
+            for (final LogGroup logGroup : response.logGroups()) {
+                if (logGroup.logGroupName() != null) {
+                    return translateForRead(logGroup);
+                }
+            }
+        }
+        return ResourceModel.builder().build();
+    }
+
+    static ResourceModel translateForRead(final LogGroup logGroup) {
         return ResourceModel.builder()
-                .arn(logGroupArn)
-                .logGroupName(logGroupName)
-                .retentionInDays(retentionInDays)
+                .arn(logGroup.arn())
+                .logGroupName(logGroup.logGroupName())
+                .retentionInDays(logGroup.retentionInDays())
+                .kmsKeyId(logGroup.kmsKeyId())
+                .creationTime(toDouble(logGroup.creationTime()))
                 .build();
     }
 
+    /**
+     * Returns the group named exactly {@code logGroupName} from a page of a prefix scan.
+     */
+    static Optional<LogGroup> findExactMatch(final DescribeLogGroupsResponse response, final String logGroupName) {
+        return streamOfOrEmpty(response.logGroups())
+                .filter(logGroup -> logGroupName.equals(logGroup.logGroupName()))
+                .findFirst();
+    }
+
+    /**
+     * Since a prefix scan is sorted by name, once a page holds a name past
+     * {@code logGroupName} no later page can contain it.
+     */
+    static boolean isPastName(final DescribeLogGroupsResponse response, final String logGroupName) {
+        return streamOfOrEmpty(response.logGroups())
+                .map(LogGroup::logGroupName)
+                .filter(Objects::nonNull)
+                .anyMatch(name -> name.compareTo(logGroupName) > 0);
+    }
+
     static List<ResourceModel> translateForList(final DescribeLogGroupsResponse response) {
+        return streamForList(response).collect(Collectors.toList());
+    }
+
+    /**
+     * Translates a page lazily, one group at a time, so a caller gathering many
+     * pages adds each model straight to its own result without a list per page.
+     */
+    static Stream<ResourceModel> streamForList(final DescribeLogGroupsResponse response) {
         return streamOfOrEmpty(response.logGroups())
-                .map(logGroup -> ResourceModel.builder()
-                        .arn(logGroup.arn())
-                        .logGroupName(logGroup.logGroupName())
-                        .retentionInDays(logGroup.retentionInDays())
-                        .build())
-                .collect(Collectors.toList());
+                .map(Translator::translateForRead);
+    }
+
+    private static Double toDouble(final Long value) {
+        return value == null ? null : value.doubleValue();
     }
 
     private static <T> Stream<T> streamOfOrEmpty(final Collection<T> collection) {
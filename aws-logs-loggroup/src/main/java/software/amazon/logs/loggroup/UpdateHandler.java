@@ -1,31 +1,102 @@
 package software.amazon.logs.loggroup;
 
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
-import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteRetentionPolicyRequest;
-import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyRequest;
-import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
 
-import java.util.Objects;
+import java.util.List;
+import java.util.function.Supplier;
 
 public class UpdateHandler extends BaseHandler<CallbackContext> {
 
+    private final Supplier<CloudWatchLogsClient> clientSupplier;
+    private final LogGroupWriter writer;
+    private final LogGroupCache cache;
+    private final IdempotencyLedger ledger;
+
+    public UpdateHandler() {
+        this(ClientBuilder::getClient);
+    }
+
+    UpdateHandler(final Supplier<CloudWatchLogsClient> clientSupplier) {
+        this(clientSupplier, LogGroupCache.shared());
+    }
+
+    UpdateHandler(final Supplier<CloudWatchLogsClient> clientSupplier, final LogGroupCache cache) {
+        this(clientSupplier, cache, IdempotencyLedger.shared());
+    }
+
+    UpdateHandler(final Supplier<CloudWatchLogsClient> clientSupplier,
+                  final LogGroupCache cache,
+                  final IdempotencyLedger ledger) {
+        this.clientSupplier = clientSupplier;
+        this.writer = new LogGroupWriter(clientSupplier);
+        this.cache = cache;
+        this.ledger = ledger;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
+        return HandlerMetrics.instrument("UpdateHandler",
+            metrics -> handleRequest(proxy, request, callbackContext, logger, metrics));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+        final AmazonWebServicesClientProxy proxy,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final CallbackContext callbackContext,
+        final Logger logger,
+        final HandlerMetrics metrics) {
 
         // RetentionPolicyInDays is the only attribute that is not createOnly
         final ResourceModel model = request.getDesiredResourceState();
+        final CallbackContext context = callbackContext == null ? new CallbackContext() : callbackContext;
+        final IdempotencyLedger.Key replayKey = IdempotencyLedger.Key.of(request, model);
+        if (ledger.isCompleted(replayKey, IdempotencyLedger.Step.RETENTION_POLICY_UPDATED, metrics)) {
+            return ProgressEvent.defaultSuccessHandler(model);
+        }
 
-        if (model.getRetentionInDays() == null) {
-            deleteRetentionPolicy(proxy, request, logger);
-        } else {
-            putRetentionPolicy(proxy, request, logger);
+        // Each operation sets the retention outright, so a checkpointed update is
+        // simply planned again from the start.
+        final Deadline deadline = Deadline.of(proxy);
+        try {
+            final List<UpdatePlanner.Operation> operations =
+                UpdatePlanner.plan(request.getPreviousResourceState(), model);
+            // With nothing to write, a group deleted out of band would otherwise be
+            // reported as updated, so check that it is still there.
+            if (operations.isEmpty()) {
+                if (deadline.isExpired()) {
+                    return Deadline.checkpoint(model, context);
+                }
+                if (!LogGroupReader.describeExactLogGroup(proxy, clientSupplier.get(), model, metrics).isPresent()) {
+                    return HandlerErrors.notFound(model);
+                }
+            }
+            for (final UpdatePlanner.Operation operation : operations) {
+                if (deadline.isExpired()) {
+                    return Deadline.checkpoint(model, context);
+                }
+                if (operation == UpdatePlanner.Operation.DELETE_RETENTION_POLICY) {
+                    deleteRetentionPolicy(proxy, request, logger, metrics);
+                } else {
+                    putRetentionPolicy(proxy, request, logger, metrics);
+                }
+            }
+            ledger.complete(replayKey, IdempotencyLedger.Step.RETENTION_POLICY_UPDATED);
+        } catch (final CfnThrottlingException e) {
+            return ThrottledProgress.retryLater(e, model, context);
+        } catch (final CloudWatchLogsException e) {
+            return HandlerErrors.failed(model, e);
+        } finally {
+            cache.invalidate(LogGroupCache.Key.of(request, model));
         }
 
         return ProgressEvent.defaultSuccessHandler(model);
@@ -33,16 +104,10 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
 
     private void deleteRetentionPolicy(final AmazonWebServicesClientProxy proxy,
                                        final ResourceHandlerRequest<ResourceModel> request,
-                                       final Logger logger) {
+                                       final Logger logger,
+                                       final HandlerMetrics metrics) {
         final ResourceModel model = request.getDesiredResourceState();
-        final DeleteRetentionPolicyRequest deleteRetentionPolicyRequest =
-            Translator.translateToDeleteRetentionPolicyRequest(model);
-        try {
-            proxy.injectCredentialsAndInvokeV2(deleteRetentionPolicyRequest,
-                ClientBuilder.getClient()::deleteRetentionPolicy);
-        } catch (final ResourceNotFoundException e) {
-            throwNotFoundException(model);
-        }
+        writer.deleteRetentionPolicy(proxy, model, metrics);
 
         final String retentionPolicyMessage =
             String.format("%s [%s] successfully deleted retention policy.",
@@ -52,25 +117,14 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
 
     private void putRetentionPolicy(final AmazonWebServicesClientProxy proxy,
                                     final ResourceHandlerRequest<ResourceModel> request,
-                                    final Logger logger) {
+                                    final Logger logger,
+                                    final HandlerMetrics metrics) {
         final ResourceModel model = request.getDesiredResourceState();
-        final PutRetentionPolicyRequest putRetentionPolicyRequest =
-            Translator.translateToPutRetentionPolicyRequest(model);
-        try {
-            proxy.injectCredentialsAndInvokeV2(putRetentionPolicyRequest,
-                ClientBuilder.getClient()::putRetentionPolicy);
-        } catch (final ResourceNotFoundException e) {
-            throwNotFoundException(model);
-        }
+        writer.putRetentionPolicy(proxy, model, metrics);
 
         final String retentionPolicyMessage =
             String.format("%s [%s] successfully applied retention in days: [%d].",
                 ResourceModel.TYPE_NAME, model.getLogGroupName(), model.getRetentionInDays());
         logger.log(retentionPolicyMessage);
     }
-
-    private void throwNotFoundException(final ResourceModel model) {
-        throw new software.amazon.cloudformation.exceptions.ResourceNotFoundException(ResourceModel.TYPE_NAME,
-            Objects.toString(model.getPrimaryIdentifier()));
-    }
 }
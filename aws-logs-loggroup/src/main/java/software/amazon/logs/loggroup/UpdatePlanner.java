@@ -0,0 +1,34 @@
+package software.amazon.logs.loggroup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Diffs the previous and desired models of an update and returns the smallest set
+ * of API calls that takes the log group from one to the other.
+ */
+final class UpdatePlanner {
+    enum Operation {
+        PUT_RETENTION_POLICY,
+        DELETE_RETENTION_POLICY
+    }
+
+    private UpdatePlanner() {}
+
+    /**
+     * Without a previous model nothing can be skipped, so every mutable property
+     * is applied as desired.
+     */
+    static List<Operation> plan(final ResourceModel previousModel, final ResourceModel desiredModel) {
+        final List<Operation> operations = new ArrayList<>();
+        final boolean retentionChanged = previousModel == null
+            || !Objects.equals(previousModel.getRetentionInDays(), desiredModel.getRetentionInDays());
+        if (retentionChanged) {
+            operations.add(desiredModel.getRetentionInDays() == null
+                ? Operation.DELETE_RETENTION_POLICY
+                : Operation.PUT_RETENTION_POLICY);
+        }
+        return operations;
+    }
+}
@@ -0,0 +1,131 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void release_ThrottleHalvesLimit() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16);
+
+        limiter.acquire();
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.THROTTLED);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+            limiter.release(AdaptiveConcurrencyLimiter.Outcome.THROTTLED);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void release_SuccessGrowsLimitUpToMax() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void release_FailureLeavesLimit() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.release(AdaptiveConcurrencyLimiter.Outcome.FAILED);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void reset_RestoresTheInitialLimitAndGrantsWaiters() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+        limiter.acquire();
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.THROTTLED);
+        limiter.acquire();
+        final CompletableFuture<Void> waiter = limiter.acquireAsync();
+        assertThat(waiter).isNotDone();
+
+        limiter.reset();
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(waiter).isDone();
+    }
+
+    @Test
+    public void acquire_BlocksAtLimit() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        limiter.acquire();
+
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertThat(acquired.await(50, TimeUnit.MILLISECONDS)).isFalse();
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+    }
+
+    @Test
+    public void acquireAsync_QueuesAtLimitAndGrantsInOrderOnRelease() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        assertThat(limiter.acquireAsync()).isDone();
+
+        final CompletableFuture<Void> first = limiter.acquireAsync();
+        final CompletableFuture<Void> second = limiter.acquireAsync();
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+        assertThat(first).isDone();
+        assertThat(second).isNotDone();
+
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+        assertThat(second).isDone();
+    }
+
+    @Test
+    public void acquireAsync_CancelledWaiterIsSkipped() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        limiter.acquireAsync();
+        final CompletableFuture<Void> cancelled = limiter.acquireAsync();
+        final CompletableFuture<Void> next = limiter.acquireAsync();
+
+        cancelled.cancel(false);
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+
+        assertThat(next).isDone();
+        assertThat(limiter.acquireAsync()).isNotDone();
+    }
+
+    @Test
+    public void acquire_InterruptedWhileWaitingGivesUpItsPlace() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        limiter.acquire();
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, limiter::acquire);
+
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+        assertThat(limiter.acquireAsync()).isDone();
+    }
+}
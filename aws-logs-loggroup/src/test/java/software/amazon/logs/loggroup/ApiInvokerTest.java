@@ -0,0 +1,430 @@
+package software.amazon.logs.loggroup;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.InvalidParameterException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LimitExceededException;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnServiceLimitExceededException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ApiInvokerTest {
+    private static final DescribeLogGroupsRequest REQUEST = DescribeLogGroupsRequest.builder().build();
+    private static final DescribeLogGroupsResponse RESPONSE = DescribeLogGroupsResponse.builder().build();
+
+    private AmazonWebServicesClientProxy proxy;
+    private List<Long> sleeps;
+    private ApiInvoker invoker;
+    private HandlerMetrics metrics;
+
+    @BeforeEach
+    public void setup() {
+        proxy = FakeCloudWatchLogsClient.mockProxy();
+        sleeps = Collections.synchronizedList(new ArrayList<>());
+        invoker = new ApiInvoker(new AdaptiveConcurrencyLimiter(10, 1, 50), 4, 100, 2000, sleeps::add, new Random(1));
+        metrics = new HandlerMetrics("TestHandler");
+    }
+
+    @Test
+    public void invoke_Success() {
+        doReturn(RESPONSE).when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThat(invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics)).isSameAs(RESPONSE);
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    public void invoke_RetriesThrottleThenSucceeds() {
+        doThrow(throttlingException(), throttlingException())
+            .doReturn(RESPONSE)
+            .when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThat(invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics)).isSameAs(RESPONSE);
+        assertThat(sleeps).hasSize(2);
+        assertThat(sleeps.get(0)).isBetween(0L, 100L);
+        assertThat(sleeps.get(1)).isBetween(0L, 200L);
+
+        final JSONObject operationLine = new JSONObject(metrics.toEmfLines(0, 0, "SUCCESS").get(1));
+        assertThat(operationLine.getString("Operation")).isEqualTo("DescribeLogGroups");
+        assertThat(operationLine.getLong("Calls")).isEqualTo(3);
+        assertThat(operationLine.getLong("Throttles")).isEqualTo(2);
+        assertThat(operationLine.getLong("Retries")).isEqualTo(2);
+        assertThat(operationLine.getLong("Errors")).isEqualTo(0);
+        assertThat(operationLine.getJSONArray("Latency").length()).isEqualTo(3);
+    }
+
+    @Test
+    public void invoke_ThrottledOnEveryAttempt() {
+        doThrow(throttlingException())
+            .when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThrows(CfnThrottlingException.class,
+            () -> invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics));
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+        assertThat(sleeps).hasSize(3);
+    }
+
+    @Test
+    public void invoke_LimitExceededIsNotRetried() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 50);
+        invoker = new ApiInvoker(limiter, 4, 100, 2000, sleeps::add, new Random(1));
+        doThrow(LimitExceededException.builder().message("limit").build())
+            .when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThrows(CfnServiceLimitExceededException.class,
+            () -> invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics));
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+        assertThat(sleeps).isEmpty();
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void invoke_FailuresLeaveTheConcurrencyLimitAsItIs() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 50);
+        invoker = new ApiInvoker(limiter, 4, 100, 2000, sleeps::add, new Random(1));
+        doThrow(InvalidParameterException.class)
+            .when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+        doReturn(failed(InvalidParameterException.builder().build()))
+            .when(proxy).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        for (int i = 0; i < 20; i++) {
+            assertThrows(InvalidParameterException.class,
+                () -> invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics));
+            assertThrows(InvalidParameterException.class,
+                () -> ApiInvoker.join(invoker.invokeAsync(proxy, REQUEST, describeLogGroupsAsync(), metrics)));
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void invoke_OtherExceptionsAreNotRetried() {
+        doThrow(InvalidParameterException.class)
+            .when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThrows(InvalidParameterException.class,
+            () -> invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics));
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    public void invoke_RetriesServerErrorsWithoutLoweringTheLimit() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 50);
+        invoker = new ApiInvoker(limiter, 4, 100, 2000, sleeps::add, new Random(1));
+        doThrow(serverError(), SdkClientException.create("reset", new IOException("Connection reset")))
+            .doReturn(RESPONSE)
+            .when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThat(invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics)).isSameAs(RESPONSE);
+        assertThat(sleeps).hasSize(2);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        final JSONObject operationLine = new JSONObject(metrics.toEmfLines(0, 0, "SUCCESS").get(1));
+        assertThat(operationLine.getLong("Throttles")).isEqualTo(0);
+        assertThat(operationLine.getLong("Retries")).isEqualTo(2);
+        assertThat(operationLine.getLong("Errors")).isEqualTo(0);
+    }
+
+    @Test
+    public void invoke_ServerErrorOnEveryAttempt() {
+        final CloudWatchLogsException error = serverError();
+        doThrow(error)
+            .when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThat(assertThrows(CloudWatchLogsException.class,
+            () -> invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics))).isSameAs(error);
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        final JSONObject operationLine = new JSONObject(metrics.toEmfLines(0, 0, "FAILED").get(1));
+        assertThat(operationLine.getLong("Retries")).isEqualTo(3);
+        assertThat(operationLine.getLong("Errors")).isEqualTo(1);
+    }
+
+    @Test
+    public void invoke_InterruptedWhileBackingOff() {
+        invoker = new ApiInvoker(new AdaptiveConcurrencyLimiter(10, 1, 50), 4, 100, 2000,
+            millis -> {
+                throw new InterruptedException();
+            },
+            new Random(1));
+        doThrow(throttlingException())
+            .when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThrows(CfnInternalFailureException.class,
+            () -> invoker.invoke(proxy, REQUEST, describeLogGroups(), metrics));
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    public void invokeAsync_RetriesThrottleThenSucceeds() {
+        invoker = new ApiInvoker(new AdaptiveConcurrencyLimiter(10, 1, 50), 4, 1, 2, sleeps::add, new Random(1));
+        doReturn(failed(throttlingException()), failed(new CompletionException(throttlingException())),
+                CompletableFuture.completedFuture(RESPONSE))
+            .when(proxy).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThat(ApiInvoker.join(invoker.invokeAsync(proxy, REQUEST, describeLogGroupsAsync(), metrics)))
+            .isSameAs(RESPONSE);
+        assertThat(sleeps).isEmpty();
+
+        final JSONObject operationLine = new JSONObject(metrics.toEmfLines(0, 0, "SUCCESS").get(1));
+        assertThat(operationLine.getLong("Calls")).isEqualTo(3);
+        assertThat(operationLine.getLong("Throttles")).isEqualTo(2);
+        assertThat(operationLine.getLong("Retries")).isEqualTo(2);
+    }
+
+    @Test
+    public void invokeAsync_ThrottledOnEveryAttempt() {
+        invoker = new ApiInvoker(new AdaptiveConcurrencyLimiter(10, 1, 50), 4, 1, 2, sleeps::add, new Random(1));
+        doReturn(failed(throttlingException()))
+            .when(proxy).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThrows(CfnThrottlingException.class,
+            () -> ApiInvoker.join(invoker.invokeAsync(proxy, REQUEST, describeLogGroupsAsync(), metrics)));
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void invokeAsync_RetriesServerErrorsThenSucceeds() {
+        invoker = new ApiInvoker(new AdaptiveConcurrencyLimiter(10, 1, 50), 4, 1, 2, sleeps::add, new Random(1));
+        doReturn(failed(serverError()), CompletableFuture.completedFuture(RESPONSE))
+            .when(proxy).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThat(ApiInvoker.join(invoker.invokeAsync(proxy, REQUEST, describeLogGroupsAsync(), metrics)))
+            .isSameAs(RESPONSE);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void invokeAsync_RetryWaitsForAPermitWithoutHoldingTheSchedulerThread() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = spy(new AdaptiveConcurrencyLimiter(1, 1, 1));
+        invoker = new ApiInvoker(limiter, 4, 1000, 1000, sleeps::add, new Random(1));
+        final CompletableFuture<DescribeLogGroupsResponse> throttled = new CompletableFuture<>();
+        final List<Thread> senders = new ArrayList<>();
+        doAnswer(invocation -> {
+            senders.add(Thread.currentThread());
+            return senders.size() == 1 ? throttled : CompletableFuture.completedFuture(RESPONSE);
+        }).when(proxy).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+        final CompletableFuture<DescribeLogGroupsResponse> waiting =
+            invoker.invokeAsync(proxy, REQUEST, describeLogGroupsAsync(), metrics);
+
+        // The retry is due from the scheduler thread once the permit is taken.
+        throttled.completeExceptionally(throttlingException());
+        limiter.acquire();
+        verify(limiter, timeout(5000).times(3)).acquireAsync();
+        assertThat(waiting).isNotDone();
+
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(RESPONSE);
+        assertThat(senders).containsExactly(Thread.currentThread(), Thread.currentThread());
+    }
+
+    @Test
+    public void invokeAsync_OtherExceptionsAreNotRetried() {
+        doThrow(InvalidParameterException.class)
+            .when(proxy).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        assertThrows(InvalidParameterException.class,
+            () -> ApiInvoker.join(invoker.invokeAsync(proxy, REQUEST, describeLogGroupsAsync(), metrics)));
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        final JSONObject operationLine = new JSONObject(metrics.toEmfLines(0, 0, "FAILED").get(1));
+        assertThat(operationLine.getLong("Errors")).isEqualTo(1);
+    }
+
+    @Test
+    public void invoke_SurfacesThrottleRatherThanBackOffPastTheDeadline() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        client.throttleNext(1);
+        final AmazonWebServicesClientProxy nearlyTimedOut = FakeCloudWatchLogsClient.proxy(() -> 1_000L);
+
+        assertThrows(CfnThrottlingException.class,
+            () -> invoker.invoke(nearlyTimedOut, REQUEST, client::describeLogGroups, metrics));
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(1);
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    public void invokeAsync_SurfacesThrottleRatherThanBackOffPastTheDeadline() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        client.throttleNext(1);
+        final AmazonWebServicesClientProxy nearlyTimedOut = FakeCloudWatchLogsClient.proxy(() -> 1_000L);
+
+        assertThrows(CfnThrottlingException.class, () -> ApiInvoker.join(
+            invoker.invokeAsync(nearlyTimedOut, REQUEST, client.async()::describeLogGroups, metrics)));
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(1);
+    }
+
+    @Test
+    public void unwrap_KeepsRuntimeCausesAndWrapsCheckedOnes() {
+        final InvalidParameterException cause = InvalidParameterException.builder().build();
+        assertThat(ApiInvoker.unwrap(new CompletionException(cause))).isSameAs(cause);
+        assertThat(ApiInvoker.unwrap(cause)).isSameAs(cause);
+
+        final RuntimeException wrapped = ApiInvoker.unwrap(new CompletionException(new IOException("closed")));
+        assertThat(wrapped).isInstanceOf(CompletionException.class).hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void backoffMillis_CappedExponential() {
+        for (int attempt = 1; attempt < 40; attempt++) {
+            final long ceiling = Math.min(2000, 100L << Math.min(attempt - 1, 30));
+            assertThat(invoker.backoffMillis(attempt)).isBetween(0L, ceiling);
+        }
+    }
+
+    @Test
+    public void isThrottle() {
+        assertThat(ApiInvoker.isThrottle(throttlingException())).isTrue();
+        assertThat(ApiInvoker.isThrottle(LimitExceededException.builder().build())).isFalse();
+        assertThat(ApiInvoker.isThrottle(InvalidParameterException.builder().build())).isFalse();
+        assertThat(ApiInvoker.isThrottle(new IllegalStateException())).isFalse();
+    }
+
+    @Test
+    public void isTransient() {
+        assertThat(ApiInvoker.isTransient(serverError())).isTrue();
+        assertThat(ApiInvoker.isTransient(SdkClientException.create("reset", new IOException("reset")))).isTrue();
+        assertThat(ApiInvoker.isTransient(SdkClientException.create("no credentials"))).isFalse();
+        assertThat(ApiInvoker.isTransient(throttlingException())).isFalse();
+        assertThat(ApiInvoker.isTransient(InvalidParameterException.builder().statusCode(400).build())).isFalse();
+        assertThat(ApiInvoker.isTransient(new IllegalStateException())).isFalse();
+    }
+
+    /**
+     * Drives concurrent callers against a stub that throttles whenever more than
+     * four calls are in flight, and measures success rate and wall-clock time with
+     * and without the invoker in front of it.
+     */
+    @Test
+    public void invoke_ConcurrentLoadAgainstThrottlingStub() throws Exception {
+        final AtomicInteger inFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            try {
+                if (inFlight.incrementAndGet() > 4) {
+                    throw throttlingException();
+                }
+                TimeUnit.MILLISECONDS.sleep(2);
+                return RESPONSE;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }).when(proxy).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        final ApiInvoker retrying = new ApiInvoker(new AdaptiveConcurrencyLimiter(16, 1, 16), 20, 1, 20,
+            Thread::sleep, new Random(1));
+
+        final LoadResult direct = runLoad(() -> proxy.injectCredentialsAndInvokeV2(REQUEST, describeLogGroups()));
+        final LoadResult withInvoker = runLoad(() -> retrying.invoke(proxy, REQUEST, describeLogGroups(), metrics));
+
+        assertThat(direct.successRate()).isLessThan(1.0);
+        assertThat(withInvoker.successRate()).isEqualTo(1.0);
+        assertThat(withInvoker.elapsedMillis).isLessThan(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private static LoadResult runLoad(final Runnable call) throws Exception {
+        final int threads = 16;
+        final int callsPerThread = 25;
+        final AtomicInteger successes = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final long start = System.nanoTime();
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < callsPerThread; j++) {
+                        try {
+                            call.run();
+                            successes.incrementAndGet();
+                        } catch (final RuntimeException e) {
+                            // counted as a failure
+                        }
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return new LoadResult(threads * callsPerThread, successes.get(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static class LoadResult {
+        private final int calls;
+        private final int successes;
+        private final long elapsedMillis;
+
+        LoadResult(final int calls, final int successes, final long elapsedMillis) {
+            this.calls = calls;
+            this.successes = successes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        double successRate() {
+            return (double) successes / calls;
+        }
+    }
+
+    static CloudWatchLogsException throttlingException() {
+        return (CloudWatchLogsException) CloudWatchLogsException.builder()
+            .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+            .statusCode(400)
+            .build();
+    }
+
+    private static CloudWatchLogsException serverError() {
+        return (CloudWatchLogsException) CloudWatchLogsException.builder()
+            .awsErrorDetails(AwsErrorDetails.builder().errorCode("InternalFailure").build())
+            .statusCode(500)
+            .build();
+    }
+
+    private static Function<DescribeLogGroupsRequest, CompletableFuture<DescribeLogGroupsResponse>>
+        describeLogGroupsAsync() {
+        return request -> CompletableFuture.completedFuture(RESPONSE);
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable error) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    private static Function<DescribeLogGroupsRequest, DescribeLogGroupsResponse> describeLogGroups() {
+        return request -> RESPONSE;
+    }
+}
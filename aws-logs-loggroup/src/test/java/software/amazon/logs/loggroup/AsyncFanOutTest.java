@@ -0,0 +1,95 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AsyncFanOutTest {
+    @Test
+    public void map_KeepsItemOrderAndStartsTheNextTaskAsEachCompletes() {
+        final List<CompletableFuture<String>> pending = new ArrayList<>();
+        final AtomicInteger started = new AtomicInteger();
+
+        final CompletableFuture<List<String>> results = AsyncFanOut.map(Arrays.asList(1, 2, 3, 4, 5), 2, item -> {
+            started.incrementAndGet();
+            final CompletableFuture<String> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+
+        assertThat(started.get()).isEqualTo(2);
+        pending.get(1).complete("2");
+        assertThat(started.get()).isEqualTo(3);
+        pending.get(0).complete("1");
+        pending.get(2).complete("3");
+        assertThat(started.get()).isEqualTo(5);
+        assertThat(results).isNotDone();
+        pending.get(4).complete("5");
+        pending.get(3).complete("4");
+
+        assertThat(results.join()).containsExactly("1", "2", "3", "4", "5");
+    }
+
+    @Test
+    public void map_RunsLongSynchronousRunsWithoutRecursion() {
+        final List<Integer> items = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+
+        final List<Integer> results = AsyncFanOut.map(items, 4, CompletableFuture::completedFuture).join();
+
+        assertThat(results).isEqualTo(items);
+    }
+
+    @Test
+    public void map_FailsWhenAnyTaskFails() {
+        final AtomicInteger started = new AtomicInteger();
+
+        final CompletableFuture<List<Integer>> results = AsyncFanOut.map(Arrays.asList(1, 2, 3), 1, item -> {
+            started.incrementAndGet();
+            if (item == 2) {
+                throw new IllegalArgumentException("bad item");
+            }
+            return CompletableFuture.completedFuture(item);
+        });
+
+        assertThat(started.get()).isEqualTo(3);
+        assertThrows(IllegalArgumentException.class, () -> ApiInvoker.join(results));
+    }
+
+    @Test
+    public void map_CompletesAtOnceWithNoItems() {
+        assertThat(AsyncFanOut.map(Collections.<Integer>emptyList(), 4, CompletableFuture::completedFuture).join())
+            .isEmpty();
+    }
+
+    @Test
+    public void map_CallsWaitingForPermitsHoldNoThread() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        final ApiInvoker invoker = new ApiInvoker(limiter, 4, 1, 2, millis -> { }, new Random(1));
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        client.throttleNext(3);
+        final HandlerMetrics metrics = new HandlerMetrics("AsyncFanOutTest");
+        limiter.acquire();
+
+        final CompletableFuture<List<DescribeLogGroupsResponse>> results = AsyncFanOut.map(
+            Arrays.asList("a", "b", "c", "d"), 4, prefix -> invoker.invokeAsync(FakeCloudWatchLogsClient.proxy(),
+                Translator.translateToListRequest(prefix, null, 1), client.async()::describeLogGroups, metrics));
+
+        assertThat(results).isNotDone();
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCEEDED);
+        assertThat(results.get(5, TimeUnit.SECONDS)).hasSize(4);
+        assertThat(client.throttleCount()).isEqualTo(3);
+    }
+}
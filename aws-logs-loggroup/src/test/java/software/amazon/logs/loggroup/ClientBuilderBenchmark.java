@@ -0,0 +1,52 @@
+package software.amazon.logs.loggroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.cloudformation.LambdaWrapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of obtaining a client. CreateHandler needs the client twice per
+ * request, so the "before" number is paid twice per create.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientBuilderBenchmark {
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (System.getProperty("aws.region") == null && System.getenv("AWS_REGION") == null) {
+            System.setProperty("aws.region", "us-east-1");
+        }
+    }
+
+    @Benchmark
+    public CloudWatchLogsClient buildClientPerCall() {
+        final CloudWatchLogsClient client = CloudWatchLogsClient.builder()
+                .httpClient(LambdaWrapper.HTTP_CLIENT)
+                .build();
+        // closing the client leaves the shared HTTP client open
+        client.close();
+        return client;
+    }
+
+    @Benchmark
+    public CloudWatchLogsClient sharedClient() {
+        return ClientBuilder.getClient();
+    }
+}
@@ -0,0 +1,110 @@
+package software.amazon.logs.loggroup;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ClientBuilderTest {
+    private HttpServer server;
+    private AtomicInteger requests;
+
+    /**
+     * A local endpoint that throttles every request.
+     */
+    @BeforeEach
+    public void setup() throws IOException {
+        requests = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            final byte[] body = "{\"__type\":\"ThrottlingException\",\"message\":\"Rate exceeded\"}"
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.1");
+            exchange.sendResponseHeaders(400, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void getClient_ReturnsSharedInstance() {
+        assertThat(ClientBuilder.getClient()).isNotNull();
+        assertThat(ClientBuilder.getClient()).isSameAs(ClientBuilder.getClient());
+    }
+
+    @Test
+    public void getAsyncClient_ReturnsSharedInstance() {
+        assertThat(ClientBuilder.getAsyncClient()).isNotNull();
+        assertThat(ClientBuilder.getAsyncClient()).isSameAs(ClientBuilder.getAsyncClient());
+    }
+
+    @Test
+    public void overrideConfiguration_TurnsSdkRetriesOff() {
+        assertThat(ClientBuilder.overrideConfiguration().retryPolicy()).isPresent();
+        assertThat(ClientBuilder.overrideConfiguration().retryPolicy().get().numRetries()).isZero();
+    }
+
+    @Test
+    public void overrideConfiguration_ThrottledCallIsSentOnce() {
+        try (CloudWatchLogsClient client = CloudWatchLogsClient.builder()
+                .endpointOverride(endpoint())
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials())
+                .overrideConfiguration(ClientBuilder.overrideConfiguration())
+                .build()) {
+            final CloudWatchLogsException e =
+                assertThrows(CloudWatchLogsException.class, client::describeLogGroups);
+
+            assertThat(ApiInvoker.isThrottle(e)).isTrue();
+            assertThat(requests.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void overrideConfiguration_ThrottledAsyncCallIsSentOnce() {
+        try (CloudWatchLogsAsyncClient client = CloudWatchLogsAsyncClient.builder()
+                .endpointOverride(endpoint())
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials())
+                .overrideConfiguration(ClientBuilder.overrideConfiguration())
+                .build()) {
+            final CloudWatchLogsException e = assertThrows(CloudWatchLogsException.class,
+                () -> ApiInvoker.join(client.describeLogGroups()));
+
+            assertThat(ApiInvoker.isThrottle(e)).isTrue();
+            assertThat(requests.get()).isEqualTo(1);
+        }
+    }
+
+    private URI endpoint() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    private static StaticCredentialsProvider credentials() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create("access", "secret"));
+    }
+}
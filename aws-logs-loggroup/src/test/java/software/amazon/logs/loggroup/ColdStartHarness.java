@@ -0,0 +1,205 @@
+package software.amazon.logs.loggroup;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CreateLogGroupRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CreateLogGroupResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteRetentionPolicyRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteRetentionPolicyResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Measures what the first invocation of each handler costs in a fresh JVM: the
+ * classes it loads and the time until it returns. The service is answered
+ * in-process, so the numbers cover class loading and initialization only.
+ *
+ * With no arguments, every action is run in {@code -Dcoldstart.runs} (default 5)
+ * fresh JVMs on the current classpath and the medians are printed. With an action
+ * name, that action is measured once in this JVM. Run it with
+ * {@code mvn -P cold-start integration-test}.
+ */
+public final class ColdStartHarness {
+    private static final List<String> ACTIONS = Arrays.asList("CREATE", "READ", "UPDATE", "DELETE", "LIST");
+    private static final String RESULT_PREFIX = "COLD_START";
+
+    private ColdStartHarness() {}
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length > 0) {
+            measure(args[0]);
+            return;
+        }
+        final int runs = Integer.getInteger("coldstart.runs", 5);
+        System.out.printf("%-8s %16s %18s %18s %16s%n",
+            "action", "classes loaded", "first call (ms)", "second call (ms)", "JVM uptime (ms)");
+        for (final String action : ACTIONS) {
+            final List<long[]> results = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                results.add(runChild(action));
+            }
+            System.out.printf("%-8s %16d %18d %18d %16d%n",
+                action, median(results, 0), median(results, 1), median(results, 2), median(results, 3));
+        }
+    }
+
+    private static void measure(final String action) {
+        if (System.getProperty("aws.region") == null && System.getenv("AWS_REGION") == null) {
+            System.setProperty("aws.region", "us-east-1");
+        }
+        final AmazonWebServicesClientProxy proxy = new InMemoryProxy();
+        final LoggerProxy logger = new LoggerProxy();
+        final int classesBefore = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+
+        final long firstStart = System.nanoTime();
+        invoke(action, proxy, logger);
+        final long firstMillis = (System.nanoTime() - firstStart) / 1_000_000;
+        final int classesAfter = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+        final long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        final long secondStart = System.nanoTime();
+        invoke(action, proxy, logger);
+        final long secondMillis = (System.nanoTime() - secondStart) / 1_000_000;
+
+        System.out.printf("%s %s %d %d %d %d%n", RESULT_PREFIX, action,
+            classesAfter - classesBefore, firstMillis, secondMillis, uptimeMillis);
+    }
+
+    private static void invoke(final String action,
+                               final AmazonWebServicesClientProxy proxy,
+                               final LoggerProxy logger) {
+        final ResourceModel model = ResourceModel.builder()
+            .logGroupName("ColdStartLogGroup")
+            .retentionInDays(7)
+            .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        switch (action) {
+            case "CREATE":
+                new CreateHandler().handleRequest(proxy, request, null, logger);
+                break;
+            case "READ":
+                new ReadHandler().handleRequest(proxy, request, null, logger);
+                break;
+            case "UPDATE":
+                new UpdateHandler().handleRequest(proxy, request, null, logger);
+                break;
+            case "DELETE":
+                new DeleteHandler().handleRequest(proxy, request, null, logger);
+                break;
+            case "LIST":
+                new ListHandler().handleRequest(proxy, request, null, logger);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action " + action + ", expected one of " + ACTIONS);
+        }
+    }
+
+    private static long[] runChild(final String action) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        if (System.getProperty("aws.region") != null) {
+            command.add("-Daws.region=" + System.getProperty("aws.region"));
+        }
+        command.add(ColdStartHarness.class.getName());
+        command.add(action);
+
+        final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long[] result = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX + " ")) {
+                    result = Arrays.stream(line.split(" ")).skip(2).mapToLong(Long::parseLong).toArray();
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Cold start run for " + action + " failed");
+        }
+        return result;
+    }
+
+    private static long median(final List<long[]> results, final int column) {
+        final List<Long> values = new ArrayList<>();
+        for (final long[] result : results) {
+            values.add(result[column]);
+        }
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    /**
+     * Answers every call in-process instead of signing and sending it.
+     */
+    private static class InMemoryProxy extends AmazonWebServicesClientProxy {
+        InMemoryProxy() {
+            super(new LoggerProxy(), new Credentials("accessKeyId", "secretAccessKey", "sessionToken"),
+                () -> 60_000L);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <RequestT extends AwsRequest, ResultT extends AwsResponse> ResultT injectCredentialsAndInvokeV2(
+            final RequestT request,
+            final Function<RequestT, ResultT> requestFunction) {
+            return (ResultT) respond(request);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <RequestT extends AwsRequest, ResultT extends AwsResponse>
+            CompletableFuture<ResultT> injectCredentialsAndInvokeV2Async(
+                final RequestT request,
+                final Function<RequestT, CompletableFuture<ResultT>> requestFunction) {
+            return CompletableFuture.completedFuture((ResultT) respond(request));
+        }
+
+        private static AwsResponse respond(final AwsRequest request) {
+            if (request instanceof DescribeLogGroupsRequest) {
+                final String prefix = ((DescribeLogGroupsRequest) request).logGroupNamePrefix();
+                return DescribeLogGroupsResponse.builder()
+                    .logGroups(LogGroup.builder()
+                        .logGroupName(prefix == null ? "ColdStartLogGroup" : prefix)
+                        .retentionInDays(7)
+                        .build())
+                    .build();
+            }
+            if (request instanceof CreateLogGroupRequest) {
+                return CreateLogGroupResponse.builder().build();
+            }
+            if (request instanceof PutRetentionPolicyRequest) {
+                return PutRetentionPolicyResponse.builder().build();
+            }
+            if (request instanceof DeleteRetentionPolicyRequest) {
+                return DeleteRetentionPolicyResponse.builder().build();
+            }
+            return DeleteLogGroupResponse.builder().build();
+        }
+    }
+}
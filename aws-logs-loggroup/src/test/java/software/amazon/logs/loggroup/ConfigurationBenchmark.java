@@ -0,0 +1,40 @@
+package software.amazon.logs.loggroup;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of getting the schema. {@code parseSchemaPerRequest} parses it
+ * from the classpath on every call, as Configuration used to; {@code cachedSchema}
+ * returns the schema parsed once per container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationBenchmark {
+
+    @Benchmark
+    public JSONObject parseSchemaPerRequest() {
+        return new JSONObject(new JSONTokener(
+            ConfigurationBenchmark.class.getClassLoader().getResourceAsStream(Configuration.SCHEMA_FILENAME)));
+    }
+
+    @Benchmark
+    public JSONObject cachedSchema() {
+        return new Configuration().resourceSchemaJSONObject();
+    }
+}
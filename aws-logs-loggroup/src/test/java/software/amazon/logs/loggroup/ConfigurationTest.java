@@ -0,0 +1,29 @@
+package software.amazon.logs.loggroup;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigurationTest {
+
+    @Test
+    public void resourceSchemaJSONObject_ParsedOnceAndShared() {
+        final JSONObject schema = new Configuration().resourceSchemaJSONObject();
+
+        assertThat(schema.getString("typeName")).isEqualTo(ResourceModel.TYPE_NAME);
+        assertThat(new Configuration().resourceSchemaJSONObject()).isSameAs(schema);
+    }
+
+    @Test
+    public void resourceSchema_KmsKeyIdTakesKeyArnsOnly() {
+        final Pattern pattern = Pattern.compile(new Configuration().resourceSchemaJSONObject()
+            .getJSONObject("properties").getJSONObject("KmsKeyId").getString("pattern"));
+
+        assertThat(pattern.matcher("arn:aws:kms:us-east-1:123456789012:key/key-id").find()).isTrue();
+        assertThat(pattern.matcher("arn:aws:kms:us-east-1:123456789012:alias/my-key").find()).isFalse();
+        assertThat(pattern.matcher("key-id").find()).isFalse();
+    }
+}
@@ -1,7 +1,10 @@
 package software.amazon.logs.loggroup;
 
 import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -12,16 +15,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CreateLogGroupRequest;
 import software.amazon.awssdk.services.cloudwatchlogs.model.CreateLogGroupResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
 import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.InvalidParameterException;
 import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
 import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyResponse;
 import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceAlreadyExistsException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
@@ -38,26 +52,24 @@ public class CreateHandlerTest {
 
     @BeforeEach
     public void setup() {
-        handler = new CreateHandler();
-        proxy = mock(AmazonWebServicesClientProxy.class);
+        handler = handlerFor(ClientBuilder::getAsyncClient);
+        proxy = FakeCloudWatchLogsClient.mockProxy();
         logger = mock(Logger.class);
     }
 
     @Test
     public void handleRequest_Success() {
-        final DescribeLogGroupsResponse describeResponseInitial = DescribeLogGroupsResponse.builder()
-                .logGroups(Collections.emptyList())
-                .build();
-        final CreateLogGroupResponse createLogGroupResponse = CreateLogGroupResponse.builder().build();
-        final PutRetentionPolicyResponse putRetentionPolicyResponse = PutRetentionPolicyResponse.builder().build();
         final LogGroup logGroup = LogGroup.builder()
+                .arn("arn:aws:logs:us-east-1:123456789012:log-group:LogGroup:*")
                 .logGroupName("LogGroup")
                 .retentionInDays(1)
                 .build();
 
-        doReturn(describeResponseInitial, createLogGroupResponse, putRetentionPolicyResponse)
+        doReturn(completedFuture(CreateLogGroupResponse.builder().build()),
+                completedFuture(PutRetentionPolicyResponse.builder().build()),
+                completedFuture(DescribeLogGroupsResponse.builder().logGroups(logGroup).build()))
             .when(proxy)
-            .injectCredentialsAndInvokeV2(
+            .injectCredentialsAndInvokeV2Async(
                 ArgumentMatchers.any(),
                 ArgumentMatchers.any()
             );
@@ -78,24 +90,15 @@ public class CreateHandlerTest {
         assertThat(response.getCallbackContext()).isNull();
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
         assertThat(response.getResourceModels()).isNull();
-        assertThat(response.getResourceModel()).isEqualToComparingFieldByField(logGroup);
+        assertThat(response.getResourceModel()).isEqualToComparingFieldByField(Translator.translateForRead(logGroup));
+        assertThat(response.getResourceModel().getArn()).isEqualTo(logGroup.arn());
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
 
     @Test
     public void handleRequest_SuccessGeneratedLogGroupName_ModelIsNull() {
-        final DescribeLogGroupsResponse describeResponseInitial = DescribeLogGroupsResponse.builder()
-            .logGroups(Collections.emptyList())
-            .build();
-        final CreateLogGroupResponse createLogGroupResponse = CreateLogGroupResponse.builder().build();
-
-        doReturn(describeResponseInitial, createLogGroupResponse)
-            .when(proxy)
-            .injectCredentialsAndInvokeV2(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.any()
-            );
+        stubLogGroupVisibleAfterCreate();
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .clientRequestToken("token")
@@ -116,18 +119,7 @@ public class CreateHandlerTest {
 
     @Test
     public void handleRequest_SuccessGeneratedLogGroupName() {
-        final DescribeLogGroupsResponse describeResponseInitial = DescribeLogGroupsResponse.builder()
-                .logGroups(Collections.emptyList())
-                .build();
-        final CreateLogGroupResponse createLogGroupResponse = CreateLogGroupResponse.builder().build();
-        final PutRetentionPolicyResponse putRetentionPolicyResponse = PutRetentionPolicyResponse.builder().build();
-
-        doReturn(describeResponseInitial, createLogGroupResponse, putRetentionPolicyResponse)
-                .when(proxy)
-                .injectCredentialsAndInvokeV2(
-                        ArgumentMatchers.any(),
-                        ArgumentMatchers.any()
-                );
+        stubLogGroupVisibleAfterCreate();
 
         final ResourceModel model = ResourceModel.builder()
                 .retentionInDays(1)
@@ -163,7 +155,7 @@ public class CreateHandlerTest {
     public void handleRequest_FailureAlreadyExists() {
         doThrow(ResourceAlreadyExistsException.class)
                 .when(proxy)
-                .injectCredentialsAndInvokeV2(
+                .injectCredentialsAndInvokeV2Async(
                         ArgumentMatchers.any(),
                         ArgumentMatchers.any()
                 );
@@ -180,4 +172,526 @@ public class CreateHandlerTest {
         assertThrows(CfnAlreadyExistsException.class,
             () -> handler.handleRequest(proxy, request, null, logger));
     }
+
+    @Test
+    public void handleRequest_ThrottledCreate_ReturnsInProgress() {
+        doThrow(new CfnThrottlingException("CreateLogGroupRequest"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .retentionInDays(1)
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isGreaterThanOrEqualTo(Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS);
+        assertThat(response.getCallbackContext().isLogGroupCreated()).isFalse();
+        assertThat(response.getCallbackContext().getThrottleCallbacks()).isEqualTo(1);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+    }
+
+    @Test
+    public void handleRequest_ResumesAfterCreatedStep() {
+        doReturn(completedFuture(PutRetentionPolicyResponse.builder().build()),
+                completedFuture(DescribeLogGroupsResponse.builder()
+                        .logGroups(LogGroup.builder().logGroupName("LogGroup").retentionInDays(1).build())
+                        .build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .retentionInDays(1)
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final CallbackContext context = CallbackContext.builder()
+                .logGroupCreated(true)
+                .throttleCallbacks(1)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.eq(Translator.translateToPutRetentionPolicyRequest(model)),
+                ArgumentMatchers.any());
+        verify(proxy).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.eq(Translator.translateToReadRequest(model)),
+                ArgumentMatchers.any());
+        verifyNoMoreInteractions(proxy);
+    }
+
+    @Test
+    public void handleRequest_ThrottledTooOften_Throws() {
+        doThrow(new CfnThrottlingException("CreateLogGroupRequest"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final CallbackContext context = CallbackContext.builder()
+                .throttleCallbacks(ThrottledProgress.MAX_THROTTLE_CALLBACKS)
+                .build();
+
+        assertThrows(CfnThrottlingException.class,
+            () -> handler.handleRequest(proxy, request, context, logger));
+    }
+
+    @Test
+    public void handleRequest_NotYetVisible_ReturnsInProgress() {
+        doReturn(completedFuture(CreateLogGroupResponse.builder().build()),
+                completedFuture(DescribeLogGroupsResponse.builder().logGroups(Collections.emptyList()).build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(1);
+        assertThat(response.getCallbackContext().isLogGroupCreated()).isTrue();
+        assertThat(response.getCallbackContext().getStabilizationPolls()).isEqualTo(1);
+        assertThat(response.getCallbackContext().getStabilizationStartedMillis()).isGreaterThan(0);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+    }
+
+    @Test
+    public void handleRequest_ResumesStabilization_OnlyPolls() throws Exception {
+        final LogGroup logGroup = LogGroup.builder()
+                .arn("arn:aws:logs:us-east-1:123456789012:log-group:LogGroup:*")
+                .logGroupName("LogGroup")
+                .build();
+        doReturn(completedFuture(DescribeLogGroupsResponse.builder().logGroups(logGroup).build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final CallbackContext context = CallbackContext.builder()
+                .logGroupCreated(true)
+                .stabilizationPolls(3)
+                .stabilizationStartedMillis(System.currentTimeMillis() - 7000)
+                .build();
+
+        final PrintStream stdout = System.out;
+        final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        final ProgressEvent<ResourceModel, CallbackContext> response;
+        System.setOut(new PrintStream(captured, true, "UTF-8"));
+        try {
+            response = handler.handleRequest(proxy, request, context, logger);
+        } finally {
+            System.setOut(stdout);
+        }
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getArn()).isEqualTo(logGroup.arn());
+        verify(proxy).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.eq(Translator.translateToReadRequest(model)),
+                ArgumentMatchers.any());
+        verifyNoMoreInteractions(proxy);
+        verify(logger).log(ArgumentMatchers.contains("stabilized after 4 poll(s)"));
+        verify(logger, never()).log(ArgumentMatchers.contains("\"StabilizationPolls\""));
+        assertThat(captured.toString("UTF-8")).contains("\"StabilizationPolls\":4");
+    }
+
+    @Test
+    public void handleRequest_NeverVisible_ThrowsNotStabilized() {
+        doReturn(completedFuture(DescribeLogGroupsResponse.builder().logGroups(Collections.emptyList()).build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final CallbackContext context = CallbackContext.builder()
+                .logGroupCreated(true)
+                .stabilizationPolls(CreateHandler.MAX_STABILIZATION_POLLS - 1)
+                .stabilizationStartedMillis(System.currentTimeMillis())
+                .build();
+
+        assertThrows(CfnNotStabilizedException.class,
+            () -> handler.handleRequest(proxy, request, context, logger));
+    }
+
+    @Test
+    public void handleRequest_RetentionAndFirstPollOverlap() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient().withLatency(Duration.ofMillis(50));
+        handler = handlerFor(client::async);
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .retentionInDays(7)
+                .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getRetentionInDays()).isEqualTo(7);
+        assertThat(response.getResourceModel().getArn()).isEqualTo(client.logGroup("LogGroup").get().arn());
+        assertThat(client.logGroup("LogGroup").get().retentionInDays()).isEqualTo(7);
+        assertThat(client.peakConcurrency()).isEqualTo(2);
+    }
+
+    @Test
+    public void handleRequest_ThrottledRetention_ReturnsInProgress() {
+        doReturn(completedFuture(CreateLogGroupResponse.builder().build()))
+                .doThrow(new CfnThrottlingException("PutRetentionPolicyRequest"))
+                .doReturn(completedFuture(DescribeLogGroupsResponse.builder().logGroups(Collections.emptyList()).build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .retentionInDays(1)
+                .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().isLogGroupCreated()).isTrue();
+        assertThat(response.getCallbackContext().isRetentionPolicyApplied()).isFalse();
+        assertThat(response.getCallbackContext().getThrottleCallbacks()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_RetentionOnMissingGroup_ReturnsNotFound() {
+        doReturn(failed(software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException.builder()
+                        .build()),
+                completedFuture(DescribeLogGroupsResponse.builder().logGroups(Collections.emptyList()).build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .retentionInDays(1)
+                .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final CallbackContext context = CallbackContext.builder()
+                .logGroupCreated(true)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    @Test
+    public void handleRequest_PollPagesPastEmptyPage() {
+        doReturn(completedFuture(CreateLogGroupResponse.builder().build()),
+                completedFuture(DescribeLogGroupsResponse.builder().nextToken("token").build()),
+                completedFuture(DescribeLogGroupsResponse.builder()
+                        .logGroups(LogGroup.builder().logGroupName("LogGroup").build())
+                        .build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.eq(Translator.translateToReadRequest(model, "token")),
+                ArgumentMatchers.any());
+    }
+
+    @Test
+    public void handleRequest_PollNotFound_ReturnsInProgress() {
+        doReturn(completedFuture(CreateLogGroupResponse.builder().build()),
+                failed(software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException.builder()
+                        .build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getStabilizationPolls()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_PollFails_Throws() {
+        doReturn(completedFuture(CreateLogGroupResponse.builder().build()),
+                failed(InvalidParameterException.builder().message("invalid").build()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        assertThrows(InvalidParameterException.class,
+            () -> handler.handleRequest(proxy, request, null, logger));
+    }
+
+    @Test
+    public void stabilizationDelaySeconds_DoublesUpToCeiling() {
+        assertThat(CreateHandler.stabilizationDelaySeconds(1)).isEqualTo(1);
+        assertThat(CreateHandler.stabilizationDelaySeconds(2)).isEqualTo(2);
+        assertThat(CreateHandler.stabilizationDelaySeconds(3)).isEqualTo(4);
+        assertThat(CreateHandler.stabilizationDelaySeconds(5)).isEqualTo(16);
+        assertThat(CreateHandler.stabilizationDelaySeconds(9)).isEqualTo(16);
+        assertThat(CreateHandler.stabilizationDelaySeconds(CreateHandler.MAX_STABILIZATION_POLLS))
+            .isLessThan(Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS);
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable error) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /**
+     * Answers DescribeLogGroups with the group the request asks for, so generated
+     * names stabilize on the first poll; every other call gets an empty response.
+     */
+    private void stubLogGroupVisibleAfterCreate() {
+        doAnswer(invocation -> {
+            final Object request = invocation.getArgument(0);
+            if (request instanceof DescribeLogGroupsRequest) {
+                final String name = ((DescribeLogGroupsRequest) request).logGroupNamePrefix();
+                return completedFuture(DescribeLogGroupsResponse.builder()
+                        .logGroups(LogGroup.builder().logGroupName(name).build())
+                        .build());
+            }
+            return completedFuture(request instanceof CreateLogGroupRequest
+                    ? CreateLogGroupResponse.builder().build()
+                    : PutRetentionPolicyResponse.builder().build());
+        }).when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+    }
+
+    @Test
+    public void handleRequest_ReplayedRequestSkipsCompletedSteps() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        handler = handlerFor(client::async);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                    .clientRequestToken("token")
+                    .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").retentionInDays(7).build())
+                    .build();
+
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            assertThat(response.getResourceModel().getRetentionInDays()).isEqualTo(7);
+        }
+        assertThat(client.callCount("CreateLogGroup")).isEqualTo(1);
+        assertThat(client.callCount("PutRetentionPolicy")).isEqualTo(1);
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(3);
+    }
+
+    @Test
+    public void handleRequest_CreatesWithKmsKey() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        handler = handlerFor(client::async);
+        final String kmsKeyId = "arn:aws:kms:us-east-1:123456789012:key/key-id";
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").kmsKeyId(kmsKeyId).build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getKmsKeyId()).isEqualTo(kmsKeyId);
+        assertThat(client.logGroup("LogGroup").get().kmsKeyId()).isEqualTo(kmsKeyId);
+    }
+
+    @Test
+    public void handleRequest_GeneratedNameAlreadyCreatedByThisRequest_Succeeds() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        final LogGroupCache cache = new LogGroupCache(Duration.ZERO, 1, System::nanoTime);
+
+        // Each attempt runs in a different container, with nothing in common but the token.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            handler = handlerFor(client::async, cache);
+            final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                    .clientRequestToken("4b90a7e4-b790-456b-a937-0cfdfa212fed")
+                    .logicalResourceIdentifier("MyLogGroup")
+                    .build();
+
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        }
+        assertThat(client.callCount("CreateLogGroup")).isEqualTo(2);
+        assertThat(client.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_GivenNameAlreadyExists_StillFailsOnReplayInAnotherContainer() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(Collections.singletonList("LogGroup"));
+        handler = handlerFor(client::async);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .clientRequestToken("token")
+                .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").build())
+                .build();
+
+        assertThrows(CfnAlreadyExistsException.class,
+            () -> handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger));
+    }
+
+    @Test
+    public void handleRequest_NoTimeLeft_CheckpointsBeforeAnyCall() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        handler = handlerFor(client::async);
+        final AtomicLong remainingMillis = new AtomicLong(1_000);
+        final AmazonWebServicesClientProxy proxy = FakeCloudWatchLogsClient.proxy(remainingMillis::get);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").retentionInDays(7).build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> checkpoint =
+            handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(checkpoint.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(checkpoint.getCallbackDelaySeconds()).isEqualTo(Deadline.CHECKPOINT_DELAY_SECONDS);
+        assertThat(checkpoint.getCallbackContext().isLogGroupCreated()).isFalse();
+        assertThat(client.callCount("CreateLogGroup")).isZero();
+
+        remainingMillis.set(900_000);
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, checkpoint.getCallbackContext(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.callCount("CreateLogGroup")).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_TimeRunsOutAfterCreation_ResumesWithRetention() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient().withLatency(Duration.ofMillis(500));
+        handler = handlerFor(client::async);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").retentionInDays(7).build())
+                .build();
+        final long reserveMillis = Deadline.DEFAULT_RESERVE.toMillis();
+
+        final ProgressEvent<ResourceModel, CallbackContext> checkpoint = handler.handleRequest(
+            FakeCloudWatchLogsClient.proxy(() -> reserveMillis + 200), request, null, logger);
+
+        assertThat(checkpoint.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(checkpoint.getCallbackContext().isLogGroupCreated()).isTrue();
+        assertThat(checkpoint.getCallbackContext().isRetentionPolicyApplied()).isFalse();
+        assertThat(client.callCount("PutRetentionPolicy")).isZero();
+        assertThat(client.callCount("DescribeLogGroups")).isZero();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(
+            FakeCloudWatchLogsClient.proxy(), request, checkpoint.getCallbackContext(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getRetentionInDays()).isEqualTo(7);
+        assertThat(client.callCount("CreateLogGroup")).isEqualTo(1);
+        assertThat(client.callCount("PutRetentionPolicy")).isEqualTo(1);
+    }
+
+    /**
+     * Each handler gets its own ledger, so a test never sees steps another test
+     * recorded under the same token.
+     */
+    private static CreateHandler handlerFor(final Supplier<CloudWatchLogsAsyncClient> client) {
+        return handlerFor(client, new LogGroupCache(Duration.ZERO, 1, System::nanoTime));
+    }
+
+    private static CreateHandler handlerFor(final Supplier<CloudWatchLogsAsyncClient> client,
+                                            final LogGroupCache cache) {
+        return new CreateHandler(client, cache, new IdempotencyLedger(Duration.ofMinutes(30), 100, System::nanoTime));
+    }
 }
@@ -0,0 +1,94 @@
+package software.amazon.logs.loggroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of a create with retention against a service that takes
+ * {@code latencyMillis} per call. "sequential" makes the create, retention and
+ * first stabilization calls one after another, as CreateHandler used to;
+ * "pipelined" is CreateHandler, which sends the last two together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateLatencyBenchmark {
+    private static final String LOG_GROUP_NAME = "/benchmark/created";
+    private static final Logger LOGGER = message -> { };
+
+    @Param({"5", "20"})
+    private int latencyMillis;
+
+    private final AmazonWebServicesClientProxy proxy = FakeCloudWatchLogsClient.proxy();
+    private final ResourceModel model = ResourceModel.builder()
+        .logGroupName(LOG_GROUP_NAME)
+        .retentionInDays(7)
+        .build();
+    private FakeCloudWatchLogsClient client;
+    private LogGroupWriter writer;
+    private CreateHandler handler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        client = new FakeCloudWatchLogsClient().withLatency(Duration.ofMillis(latencyMillis));
+        writer = new LogGroupWriter(() -> client, client::async);
+        handler = new CreateHandler(client::async);
+    }
+
+    @Benchmark
+    public Optional<LogGroup> sequential() {
+        final HandlerMetrics metrics = new HandlerMetrics("CreateHandler");
+        ApiInvoker.join(writer.createLogGroupAsync(proxy, model, metrics));
+        ApiInvoker.join(writer.putRetentionPolicyAsync(proxy, model, metrics));
+        final Optional<LogGroup> logGroup = LogGroupReader.describeExactLogGroup(proxy, client, model, metrics);
+        removeLogGroup();
+        return logGroup;
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> pipelined() {
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder()
+                .logGroupName(LOG_GROUP_NAME)
+                .retentionInDays(7)
+                .build())
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, null, LOGGER);
+        removeLogGroup();
+        return response;
+    }
+
+    /**
+     * Cleanup bypasses the injected latency so it does not count against either
+     * variant.
+     */
+    private void removeLogGroup() {
+        client.withLatency(Duration.ZERO)
+            .deleteLogGroup(DeleteLogGroupRequest.builder().logGroupName(LOG_GROUP_NAME).build());
+        client.withLatency(Duration.ofMillis(latencyMillis));
+    }
+}
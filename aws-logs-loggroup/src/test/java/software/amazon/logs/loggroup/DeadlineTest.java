@@ -0,0 +1,65 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeadlineTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void of_KeepsTheReserveOutOfTheRemainingTime() {
+        final Deadline deadline =
+            Deadline.of(FakeCloudWatchLogsClient.proxy(() -> 30_000L), Duration.ofSeconds(5), clock::get);
+
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(deadline.hasTimeFor(24_999)).isTrue();
+        assertThat(deadline.hasTimeFor(25_000)).isFalse();
+
+        clock.addAndGet(Duration.ofSeconds(25).toNanos());
+        assertThat(deadline.isExpired()).isTrue();
+    }
+
+    @Test
+    public void of_LessTimeThanTheReserveHasExpired() {
+        final Deadline deadline =
+            Deadline.of(FakeCloudWatchLogsClient.proxy(() -> 1_000L), Duration.ofSeconds(5), clock::get);
+
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.hasTimeFor(0)).isFalse();
+    }
+
+    @Test
+    public void within_TakesTheEarlierDeadline() {
+        final Deadline deadline =
+            Deadline.of(FakeCloudWatchLogsClient.proxy(() -> 30_000L), Duration.ofSeconds(5), clock::get);
+
+        assertThat(deadline.within(Duration.ofSeconds(10)).hasTimeFor(10_000)).isFalse();
+        assertThat(deadline.within(Duration.ofMinutes(1)).hasTimeFor(25_000)).isFalse();
+        assertThat(deadline.within(Duration.ofMinutes(1)).hasTimeFor(24_999)).isTrue();
+        assertThat(deadline.within(Duration.ZERO).isExpired()).isTrue();
+    }
+
+    @Test
+    public void checkpoint_ReturnsInProgressWithTheContext() {
+        final ResourceModel model = ResourceModel.builder().logGroupName("LogGroup").build();
+        final CallbackContext context = CallbackContext.builder().logGroupCreated(true).build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> event = Deadline.checkpoint(model, context);
+
+        assertThat(event.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(event.getCallbackContext()).isSameAs(context);
+        assertThat(event.getCallbackDelaySeconds()).isEqualTo(Deadline.CHECKPOINT_DELAY_SECONDS);
+        assertThat(event.getResourceModel()).isSameAs(model);
+    }
+
+    @Test
+    public void checkpoint_DelayEndsTheInvocation() {
+        assertThat(Deadline.CHECKPOINT_DELAY_SECONDS).isGreaterThanOrEqualTo(Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS);
+    }
+}
@@ -1,7 +1,8 @@
 package software.amazon.logs.loggroup;
 
-import software.amazon.cloudformation.exceptions.ResourceNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -15,11 +16,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupResponse;
 import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
 import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
 
+import java.time.Duration;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -37,7 +39,7 @@ public class DeleteHandlerTest {
     @BeforeEach
     public void setup() {
         handler = new DeleteHandler();
-        proxy = mock(AmazonWebServicesClientProxy.class);
+        proxy = FakeCloudWatchLogsClient.mockProxy();
         logger = mock(Logger.class);
     }
 
@@ -83,7 +85,7 @@ public class DeleteHandlerTest {
 
     @Test
     public void handleRequest_FailureNotFound() {
-        doThrow(software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException.class)
+        doThrow(ResourceNotFoundException.class)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
                         ArgumentMatchers.any(),
@@ -99,7 +101,84 @@ public class DeleteHandlerTest {
                 .desiredResourceState(model)
                 .build();
 
-        assertThrows(ResourceNotFoundException.class,
-            () -> handler.handleRequest(proxy, request, null, logger));
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    @Test
+    public void handleRequest_Throttled_ReturnsInProgress() {
+        doThrow(new CfnThrottlingException("DeleteLogGroupRequest"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        final ResourceModel model = ResourceModel.builder()
+                .logGroupName("LogGroup")
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isGreaterThanOrEqualTo(Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS);
+        assertThat(response.getCallbackContext().getThrottleCallbacks()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_ReplayedRequestSucceedsWithoutCalls() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(Collections.singletonList("LogGroup"));
+        handler = new DeleteHandler(() -> client, new LogGroupCache(Duration.ZERO, 1, System::nanoTime),
+            new IdempotencyLedger(Duration.ofMinutes(30), 100, System::nanoTime));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .clientRequestToken("token")
+                .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").build())
+                .build();
+
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        }
+        assertThat(client.callCount("DeleteLogGroup")).isEqualTo(1);
+
+        final ProgressEvent<ResourceModel, CallbackContext> otherRequest = handler.handleRequest(
+            FakeCloudWatchLogsClient.proxy(), ResourceHandlerRequest.<ResourceModel>builder()
+                .clientRequestToken("other-token")
+                .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").build())
+                .build(), null, logger);
+        assertThat(otherRequest.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    @Test
+    public void handleRequest_NoTimeLeft_CheckpointsBeforeTheCall() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(Collections.singletonList("LogGroup"));
+        handler = new DeleteHandler(() -> client, new LogGroupCache(Duration.ZERO, 1, System::nanoTime),
+            new IdempotencyLedger(Duration.ofMinutes(30), 100, System::nanoTime));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").build())
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> checkpoint =
+            handler.handleRequest(FakeCloudWatchLogsClient.proxy(() -> 1_000L), request, null, logger);
+
+        assertThat(checkpoint.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(client.callCount("DeleteLogGroup")).isZero();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(
+            FakeCloudWatchLogsClient.proxy(), request, checkpoint.getCallbackContext(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.size()).isZero();
     }
 }
@@ -0,0 +1,369 @@
+package software.amazon.logs.loggroup;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CreateLogGroupRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CreateLogGroupResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteRetentionPolicyRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteRetentionPolicyResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.InvalidParameterException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceAlreadyExistsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An in-process CloudWatch Logs that keeps log groups in a sorted index and serves
+ * them the way the service does: DescribeLogGroups pages in name order, filters by
+ * prefix and continues from an opaque token. Latency and throttling can be injected
+ * to load-test the handlers offline.
+ *
+ * Pair it with {@link #proxy()}, which invokes the handler's request function
+ * directly instead of injecting credentials. {@link #async()} serves the same log
+ * groups through the async client interface.
+ */
+class FakeCloudWatchLogsClient implements CloudWatchLogsClient {
+    static final String ACCOUNT_ID = "123456789012";
+    static final String REGION = "us-east-1";
+    private static final int DEFAULT_DESCRIBE_LIMIT = 50;
+    private static final ExecutorService ASYNC_EXECUTOR =
+        Executors.newCachedThreadPool(new DaemonThreadFactory("fake-cloudwatch-logs"));
+
+    private final ConcurrentSkipListMap<String, LogGroup> logGroups = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicLong> calls = new ConcurrentHashMap<>();
+    private final AtomicLong throttles = new AtomicLong();
+    private final AtomicInteger throttleNextCalls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double throttleProbability;
+    private volatile Random random = new Random(0);
+    private final CloudWatchLogsAsyncClient asyncView = new AsyncView();
+
+    /**
+     * Every call sleeps this long before it is served.
+     */
+    FakeCloudWatchLogsClient withLatency(final Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Each call is throttled with this probability, drawn from a seeded random so
+     * that runs repeat.
+     */
+    FakeCloudWatchLogsClient withThrottleProbability(final double probability, final long seed) {
+        this.throttleProbability = probability;
+        this.random = new Random(seed);
+        return this;
+    }
+
+    /**
+     * The next {@code count} calls are throttled regardless of the probability.
+     */
+    FakeCloudWatchLogsClient throttleNext(final int count) {
+        throttleNextCalls.set(count);
+        return this;
+    }
+
+    /**
+     * Seeds log groups without going through CreateLogGroup or counting calls.
+     */
+    FakeCloudWatchLogsClient addLogGroups(final Collection<String> logGroupNames) {
+        for (final String logGroupName : logGroupNames) {
+            logGroups.put(logGroupName, newLogGroup(logGroupName));
+        }
+        return this;
+    }
+
+    /**
+     * An async client over this fake. Each call is served on its own thread, so the
+     * injected latency overlaps between calls in flight as it would on the network.
+     */
+    CloudWatchLogsAsyncClient async() {
+        return asyncView;
+    }
+
+    Optional<LogGroup> logGroup(final String logGroupName) {
+        return Optional.ofNullable(logGroups.get(logGroupName));
+    }
+
+    int size() {
+        return logGroups.size();
+    }
+
+    long callCount(final String operation) {
+        final AtomicLong count = calls.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    long throttleCount() {
+        return throttles.get();
+    }
+
+    /**
+     * The most calls that were ever being served at once. Only calls that spend time
+     * in the injected latency can overlap.
+     */
+    int peakConcurrency() {
+        return peakInFlight.get();
+    }
+
+    @Override
+    public CreateLogGroupResponse createLogGroup(final CreateLogGroupRequest request) {
+        serve("CreateLogGroup");
+        final LogGroup logGroup = newLogGroup(request.logGroupName()).toBuilder().kmsKeyId(request.kmsKeyId()).build();
+        if (logGroups.putIfAbsent(request.logGroupName(), logGroup) != null) {
+            throw ResourceAlreadyExistsException.builder()
+                .message("The specified log group already exists")
+                .build();
+        }
+        return CreateLogGroupResponse.builder().build();
+    }
+
+    @Override
+    public DeleteLogGroupResponse deleteLogGroup(final DeleteLogGroupRequest request) {
+        serve("DeleteLogGroup");
+        if (logGroups.remove(request.logGroupName()) == null) {
+            throw notFound();
+        }
+        return DeleteLogGroupResponse.builder().build();
+    }
+
+    @Override
+    public PutRetentionPolicyResponse putRetentionPolicy(final PutRetentionPolicyRequest request) {
+        serve("PutRetentionPolicy");
+        if (logGroups.computeIfPresent(request.logGroupName(),
+                (name, logGroup) -> logGroup.toBuilder().retentionInDays(request.retentionInDays()).build()) == null) {
+            throw notFound();
+        }
+        return PutRetentionPolicyResponse.builder().build();
+    }
+
+    @Override
+    public DeleteRetentionPolicyResponse deleteRetentionPolicy(final DeleteRetentionPolicyRequest request) {
+        serve("DeleteRetentionPolicy");
+        if (logGroups.computeIfPresent(request.logGroupName(),
+                (name, logGroup) -> logGroup.toBuilder().retentionInDays(null).build()) == null) {
+            throw notFound();
+        }
+        return DeleteRetentionPolicyResponse.builder().build();
+    }
+
+    @Override
+    public DescribeLogGroupsResponse describeLogGroups(final DescribeLogGroupsRequest request) {
+        serve("DescribeLogGroups");
+        final int limit = request.limit() == null ? DEFAULT_DESCRIBE_LIMIT : request.limit();
+        if (limit < 1 || limit > DEFAULT_DESCRIBE_LIMIT) {
+            throw InvalidParameterException.builder()
+                .message("limit must be between 1 and " + DEFAULT_DESCRIBE_LIMIT)
+                .build();
+        }
+        final String prefix = request.logGroupNamePrefix() == null ? "" : request.logGroupNamePrefix();
+        final NavigableMap<String, LogGroup> remaining = request.nextToken() == null
+            ? logGroups.tailMap(prefix, true)
+            : logGroups.tailMap(request.nextToken(), false);
+
+        final List<LogGroup> page = new ArrayList<>(limit);
+        boolean morePages = false;
+        for (final Map.Entry<String, LogGroup> entry : remaining.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (page.size() == limit) {
+                morePages = true;
+                break;
+            }
+            page.add(entry.getValue());
+        }
+        return DescribeLogGroupsResponse.builder()
+            .logGroups(page)
+            .nextToken(morePages ? page.get(page.size() - 1).logGroupName() : null)
+            .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * A proxy that hands every request straight to the function the handler passes,
+     * which is bound to a fake client.
+     */
+    static AmazonWebServicesClientProxy proxy() {
+        return proxy(() -> 900_000L);
+    }
+
+    /**
+     * A Mockito mock of the proxy, built through the real constructor: the
+     * remaining time is read from a final method that cannot be stubbed, and
+     * reports the same 900 s as {@link #proxy()}.
+     */
+    static AmazonWebServicesClientProxy mockProxy() {
+        final Supplier<Long> remainingMillis = () -> 900_000L;
+        return Mockito.mock(AmazonWebServicesClientProxy.class, Mockito.withSettings()
+            .useConstructor(new LoggerProxy(), credentials(), remainingMillis)
+            .defaultAnswer(Mockito.RETURNS_DEFAULTS));
+    }
+
+    /**
+     * A proxy whose invocation has {@code remainingMillis} left.
+     */
+    static AmazonWebServicesClientProxy proxy(final Supplier<Long> remainingMillis) {
+        return new PassThroughProxy(remainingMillis);
+    }
+
+    private static Credentials credentials() {
+        return new Credentials("accessKeyId", "secretAccessKey", "sessionToken");
+    }
+
+    static CloudWatchLogsException throttlingException() {
+        return (CloudWatchLogsException) CloudWatchLogsException.builder()
+            .message("Rate exceeded")
+            .statusCode(400)
+            .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+            .build();
+    }
+
+    private void serve(final String operation) {
+        calls.computeIfAbsent(operation, name -> new AtomicLong()).incrementAndGet();
+        if (!latency.isZero()) {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+        if (throttleNextCalls.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0 || nextThrottle()) {
+            throttles.incrementAndGet();
+            throw throttlingException();
+        }
+    }
+
+    private boolean nextThrottle() {
+        if (throttleProbability <= 0) {
+            return false;
+        }
+        synchronized (this) {
+            return random.nextDouble() < throttleProbability;
+        }
+    }
+
+    private static LogGroup newLogGroup(final String logGroupName) {
+        return LogGroup.builder()
+            .logGroupName(logGroupName)
+            .arn(String.format("arn:aws:logs:%s:%s:log-group:%s:*", REGION, ACCOUNT_ID, logGroupName))
+            .creationTime(System.currentTimeMillis())
+            .storedBytes(0L)
+            .build();
+    }
+
+    private static ResourceNotFoundException notFound() {
+        return ResourceNotFoundException.builder()
+            .message("The specified log group does not exist.")
+            .build();
+    }
+
+    private class AsyncView implements CloudWatchLogsAsyncClient {
+        @Override
+        public CompletableFuture<CreateLogGroupResponse> createLogGroup(final CreateLogGroupRequest request) {
+            return serveAsync(() -> FakeCloudWatchLogsClient.this.createLogGroup(request));
+        }
+
+        @Override
+        public CompletableFuture<DeleteLogGroupResponse> deleteLogGroup(final DeleteLogGroupRequest request) {
+            return serveAsync(() -> FakeCloudWatchLogsClient.this.deleteLogGroup(request));
+        }
+
+        @Override
+        public CompletableFuture<PutRetentionPolicyResponse> putRetentionPolicy(
+            final PutRetentionPolicyRequest request) {
+            return serveAsync(() -> FakeCloudWatchLogsClient.this.putRetentionPolicy(request));
+        }
+
+        @Override
+        public CompletableFuture<DeleteRetentionPolicyResponse> deleteRetentionPolicy(
+            final DeleteRetentionPolicyRequest request) {
+            return serveAsync(() -> FakeCloudWatchLogsClient.this.deleteRetentionPolicy(request));
+        }
+
+        @Override
+        public CompletableFuture<DescribeLogGroupsResponse> describeLogGroups(final DescribeLogGroupsRequest request) {
+            return serveAsync(() -> FakeCloudWatchLogsClient.this.describeLogGroups(request));
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private <T> CompletableFuture<T> serveAsync(final Supplier<T> call) {
+            return CompletableFuture.supplyAsync(call, ASYNC_EXECUTOR);
+        }
+    }
+
+    private static class PassThroughProxy extends AmazonWebServicesClientProxy {
+        PassThroughProxy(final Supplier<Long> remainingMillis) {
+            super(new LoggerProxy(), credentials(), remainingMillis);
+        }
+
+        @Override
+        public <RequestT extends AwsRequest, ResultT extends AwsResponse> ResultT injectCredentialsAndInvokeV2(
+            final RequestT request,
+            final Function<RequestT, ResultT> requestFunction) {
+            return requestFunction.apply(request);
+        }
+
+        @Override
+        public <RequestT extends AwsRequest, ResultT extends AwsResponse>
+            CompletableFuture<ResultT> injectCredentialsAndInvokeV2Async(
+                final RequestT request,
+                final Function<RequestT, CompletableFuture<ResultT>> requestFunction) {
+            return requestFunction.apply(request);
+        }
+    }
+}
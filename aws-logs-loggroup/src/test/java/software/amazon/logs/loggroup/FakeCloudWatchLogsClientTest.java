@@ -0,0 +1,151 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CreateLogGroupRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteRetentionPolicyRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.InvalidParameterException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceAlreadyExistsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FakeCloudWatchLogsClientTest {
+    private FakeCloudWatchLogsClient client;
+
+    @BeforeEach
+    public void setup() {
+        client = new FakeCloudWatchLogsClient()
+            .addLogGroups(Arrays.asList("b", "a/2", "a", "a/1", "c"));
+    }
+
+    @Test
+    public void describeLogGroups_PagesInNameOrderWithinPrefix() {
+        final List<String> names = new ArrayList<>();
+        String nextToken = null;
+        do {
+            final DescribeLogGroupsResponse response = client.describeLogGroups(DescribeLogGroupsRequest.builder()
+                .logGroupNamePrefix("a")
+                .limit(2)
+                .nextToken(nextToken)
+                .build());
+            assertThat(response.logGroups()).hasSizeLessThanOrEqualTo(2);
+            names.addAll(response.logGroups().stream().map(LogGroup::logGroupName).collect(Collectors.toList()));
+            nextToken = response.nextToken();
+        } while (nextToken != null);
+
+        assertThat(names).containsExactly("a", "a/1", "a/2");
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(2);
+    }
+
+    @Test
+    public void describeLogGroups_NoPrefixServesEverything() {
+        final DescribeLogGroupsResponse response = client.describeLogGroups(DescribeLogGroupsRequest.builder().build());
+
+        assertThat(response.logGroups()).extracting(LogGroup::logGroupName)
+            .containsExactly("a", "a/1", "a/2", "b", "c");
+        assertThat(response.nextToken()).isNull();
+        assertThat(response.logGroups().get(0).arn())
+            .isEqualTo("arn:aws:logs:us-east-1:123456789012:log-group:a:*");
+    }
+
+    @Test
+    public void describeLogGroups_RejectsLimitAboveFifty() {
+        assertThrows(InvalidParameterException.class,
+            () -> client.describeLogGroups(DescribeLogGroupsRequest.builder().limit(51).build()));
+    }
+
+    @Test
+    public void createLogGroup_RejectsExistingName() {
+        client.createLogGroup(CreateLogGroupRequest.builder().logGroupName("d").build());
+
+        assertThat(client.logGroup("d")).isPresent();
+        assertThrows(ResourceAlreadyExistsException.class,
+            () -> client.createLogGroup(CreateLogGroupRequest.builder().logGroupName("d").build()));
+    }
+
+    @Test
+    public void deleteLogGroup_RemovesOrReportsMissing() {
+        client.deleteLogGroup(DeleteLogGroupRequest.builder().logGroupName("b").build());
+
+        assertThat(client.logGroup("b")).isEmpty();
+        assertThat(client.size()).isEqualTo(4);
+        assertThrows(ResourceNotFoundException.class,
+            () -> client.deleteLogGroup(DeleteLogGroupRequest.builder().logGroupName("b").build()));
+    }
+
+    @Test
+    public void retentionPolicy_PutAndDelete() {
+        client.putRetentionPolicy(PutRetentionPolicyRequest.builder().logGroupName("a").retentionInDays(7).build());
+        assertThat(client.logGroup("a").get().retentionInDays()).isEqualTo(7);
+
+        client.deleteRetentionPolicy(DeleteRetentionPolicyRequest.builder().logGroupName("a").build());
+        assertThat(client.logGroup("a").get().retentionInDays()).isNull();
+
+        assertThrows(ResourceNotFoundException.class, () -> client.putRetentionPolicy(
+            PutRetentionPolicyRequest.builder().logGroupName("missing").retentionInDays(7).build()));
+        assertThrows(ResourceNotFoundException.class, () -> client.deleteRetentionPolicy(
+            DeleteRetentionPolicyRequest.builder().logGroupName("missing").build()));
+    }
+
+    @Test
+    public void throttleNext_ThrottlesExactlyThatManyCalls() {
+        client.throttleNext(2);
+
+        for (int i = 0; i < 2; i++) {
+            final CloudWatchLogsException e = assertThrows(CloudWatchLogsException.class,
+                () -> client.describeLogGroups(DescribeLogGroupsRequest.builder().build()));
+            assertThat(ApiInvoker.isThrottle(e)).isTrue();
+        }
+        client.describeLogGroups(DescribeLogGroupsRequest.builder().build());
+        assertThat(client.throttleCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void withThrottleProbability_ThrottlesAboutThatShare() {
+        client.withThrottleProbability(0.25, 42);
+
+        int throttled = 0;
+        for (int i = 0; i < 4000; i++) {
+            try {
+                client.describeLogGroups(DescribeLogGroupsRequest.builder().limit(1).build());
+            } catch (final CloudWatchLogsException e) {
+                throttled++;
+            }
+        }
+
+        assertThat(throttled).isBetween(800, 1200);
+        assertThat(client.throttleCount()).isEqualTo(throttled);
+    }
+
+    @Test
+    public void withLatency_DelaysEveryCall() {
+        client.withLatency(Duration.ofMillis(20));
+
+        final long start = System.nanoTime();
+        client.describeLogGroups(DescribeLogGroupsRequest.builder().build());
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(20).toNanos());
+    }
+
+    @Test
+    public void proxy_InvokesRequestFunction() {
+        final DescribeLogGroupsResponse response = FakeCloudWatchLogsClient.proxy()
+            .injectCredentialsAndInvokeV2(DescribeLogGroupsRequest.builder().build(), client::describeLogGroups);
+
+        assertThat(response.logGroups()).hasSize(5);
+    }
+}
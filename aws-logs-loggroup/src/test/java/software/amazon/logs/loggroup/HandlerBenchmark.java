@@ -0,0 +1,172 @@
+package software.amazon.logs.loggroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupRequest;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.exceptions.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.resource.IdentifierUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of each handler's full handleRequest, from model preparation to
+ * the returned ProgressEvent, with the service answered in-process by
+ * {@link FakeCloudWatchLogsClient}. The numbers leave out the network and cover
+ * what the handlers themselves spend per request, including metrics.
+ *
+ * Create and delete put the index back as they found it, so their numbers include
+ * one extra in-memory delete or insert. "read" runs with the read cache off.
+ * "readNotFoundThrown" replays the not-found path as it was before handlers
+ * returned failed events, for comparison with "readNotFound".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+    private static final int LOG_GROUP_COUNT = 10_000;
+    private static final String EXISTING_LOG_GROUP_NAME = "/aws/lambda/function5000";
+    private static final String MISSING_LOG_GROUP_NAME = "/aws/lambda/function5000-missing";
+    private static final Logger LOGGER = message -> { };
+
+    private final AmazonWebServicesClientProxy proxy = FakeCloudWatchLogsClient.proxy();
+    private FakeCloudWatchLogsClient client;
+    private CreateHandler createHandler;
+    private ReadHandler readHandler;
+    private ReadHandler cachedReadHandler;
+    private UpdateHandler updateHandler;
+    private DeleteHandler deleteHandler;
+    private ListHandler listHandler;
+    private ResourceHandlerRequest<ResourceModel> unnamedRequest;
+    private boolean longRetention;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final List<String> logGroupNames = new ArrayList<>(LOG_GROUP_COUNT);
+        for (int i = 0; i < LOG_GROUP_COUNT; i++) {
+            logGroupNames.add("/aws/lambda/function" + i);
+        }
+        logGroupNames.add("/benchmark/deleted");
+        client = new FakeCloudWatchLogsClient().addLogGroups(logGroupNames);
+        createHandler = new CreateHandler(client::async);
+        readHandler = new ReadHandler(() -> client, new LogGroupCache(Duration.ZERO, 1, System::nanoTime));
+        cachedReadHandler = new ReadHandler(() -> client,
+            new LogGroupCache(Duration.ofMinutes(10), 1000, System::nanoTime));
+        updateHandler = new UpdateHandler(() -> client);
+        deleteHandler = new DeleteHandler(() -> client);
+        listHandler = new ListHandler(() -> client, client::async, Translator.MAX_LIST_PAGE_LIMIT,
+            Translator.MAX_LIST_PAGE_LIMIT, Duration.ofSeconds(10), 1);
+        unnamedRequest = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(new ResourceModel())
+            .logicalResourceIdentifier("MyLogGroup")
+            .clientRequestToken("8b5bd1c2-4e6e-4bd6-9a4e-0f3f6b0b6a35")
+            .systemTags(Collections.singletonMap("aws:cloudformation:stack-name", "my-stack"))
+            .build();
+    }
+
+    @Benchmark
+    public String generateName() {
+        return CreateHandler.generateName(unnamedRequest);
+    }
+
+    @Benchmark
+    public String generateResourceIdentifier() {
+        return IdentifierUtils.generateResourceIdentifier("my-stack-MyLogGroup",
+            unnamedRequest.getClientRequestToken(), 512);
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> create() {
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            createHandler.handleRequest(proxy, request("/benchmark/created", 7), null, LOGGER);
+        client.deleteLogGroup(DeleteLogGroupRequest.builder().logGroupName("/benchmark/created").build());
+        return response;
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> read() {
+        return readHandler.handleRequest(proxy, request(EXISTING_LOG_GROUP_NAME, null), null, LOGGER);
+    }
+
+    /**
+     * Repeated reads of one group, all but the first served by the read cache.
+     */
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> readCached() {
+        return cachedReadHandler.handleRequest(proxy, request(EXISTING_LOG_GROUP_NAME, null), null, LOGGER);
+    }
+
+    /**
+     * A read of a group that does not exist, answered with a failed event.
+     */
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> readNotFound() {
+        return readHandler.handleRequest(proxy, request(MISSING_LOG_GROUP_NAME, null), null, LOGGER);
+    }
+
+    /**
+     * The same read as handlers used to answer it: by throwing
+     * ResourceNotFoundException, which the wrapper caught and turned into the
+     * failed event. Compare with readNotFound for the cost of the exception.
+     */
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> readNotFoundThrown() {
+        try {
+            readHandler.handleRequest(proxy, request(MISSING_LOG_GROUP_NAME, null), null, LOGGER);
+            throw new ResourceNotFoundException(ResourceModel.TYPE_NAME, MISSING_LOG_GROUP_NAME);
+        } catch (final BaseHandlerException e) {
+            return ProgressEvent.defaultFailureHandler(e, e.getErrorCode());
+        }
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> update() {
+        longRetention = !longRetention;
+        return updateHandler.handleRequest(proxy, request(EXISTING_LOG_GROUP_NAME, longRetention ? 30 : 7),
+            null, LOGGER);
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> delete() {
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            deleteHandler.handleRequest(proxy, request("/benchmark/deleted", null), null, LOGGER);
+        client.addLogGroups(Collections.singletonList("/benchmark/deleted"));
+        return response;
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> listPage() {
+        return listHandler.handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder().build(), null,
+            LOGGER);
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> request(final String logGroupName,
+                                                                 final Integer retentionInDays) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder()
+                .logGroupName(logGroupName)
+                .retentionInDays(retentionInDays)
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,71 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cloudwatchlogs.model.CloudWatchLogsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.InvalidParameterException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.OperationAbortedException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceAlreadyExistsException;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HandlerErrorsTest {
+    private final ResourceModel model = ResourceModel.builder().logGroupName("LogGroup").build();
+
+    @Test
+    public void errorCode_MapsExpectedServiceErrors() {
+        assertThat(HandlerErrors.errorCode(ResourceNotFoundException.builder().build()))
+            .isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(HandlerErrors.errorCode(ResourceAlreadyExistsException.builder().build()))
+            .isEqualTo(HandlerErrorCode.AlreadyExists);
+        assertThat(HandlerErrors.errorCode(InvalidParameterException.builder().build()))
+            .isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(HandlerErrors.errorCode(OperationAbortedException.builder().build()))
+            .isEqualTo(HandlerErrorCode.ResourceConflict);
+        assertThat(HandlerErrors.errorCode(new IllegalStateException())).isNull();
+    }
+
+    @Test
+    public void notFound_NamesTheResource() {
+        final ProgressEvent<ResourceModel, CallbackContext> progress = HandlerErrors.notFound(model);
+
+        assertThat(progress.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(progress.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(progress.getMessage()).contains(ResourceModel.TYPE_NAME, "LogGroup");
+        assertThat(progress.getResourceModel()).isNull();
+    }
+
+    @Test
+    public void notFound_NullModel() {
+        assertThat(HandlerErrors.notFound(null).getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    @Test
+    public void failed_KeepsTheServiceMessageForRequestErrors() {
+        final ProgressEvent<ResourceModel, CallbackContext> progress = HandlerErrors.failed(model,
+            InvalidParameterException.builder().message("bad retention").build());
+
+        assertThat(progress.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(progress.getMessage()).isEqualTo("bad retention");
+    }
+
+    @Test
+    public void failed_AlreadyExistsNamesTheResource() {
+        final ProgressEvent<ResourceModel, CallbackContext> progress =
+            HandlerErrors.failed(model, ResourceAlreadyExistsException.builder().build());
+
+        assertThat(progress.getErrorCode()).isEqualTo(HandlerErrorCode.AlreadyExists);
+        assertThat(progress.getMessage()).contains("LogGroup");
+    }
+
+    @Test
+    public void failed_RethrowsUnexpectedErrors() {
+        final CloudWatchLogsException e = (CloudWatchLogsException) CloudWatchLogsException.builder().build();
+
+        assertThat(assertThrows(CloudWatchLogsException.class, () -> HandlerErrors.failed(model, e))).isSameAs(e);
+    }
+}
@@ -0,0 +1,304 @@
+package software.amazon.logs.loggroup;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Drives the handlers against an in-process CloudWatch Logs holding a realistic
+ * number of log groups, so paging, prefix scans and throttling recovery are
+ * exercised at scale without an account. Tagged {@code load} and left out of the
+ * default build; run with {@code mvn -P load test}.
+ */
+@Tag("load")
+public class HandlerLoadTest {
+    private static final int LOG_GROUP_COUNT = 100_000;
+    private static final String[] PREFIXES = {"/aws/lambda/fn-", "/ecs/service-", "App-", "batch_", "9-nightly-"};
+    private static final Logger LOGGER = message -> { };
+    /** Listing churns about 250 bytes per group; encoding every string to size pages took over 1,300. */
+    private static final long MAX_LIST_BYTES_PER_GROUP = 512;
+
+    private static TreeSet<String> seededNames;
+
+    private final AmazonWebServicesClientProxy proxy = FakeCloudWatchLogsClient.proxy();
+
+    @BeforeAll
+    public static void seed() {
+        seededNames = new TreeSet<>();
+        for (int i = 0; seededNames.size() < LOG_GROUP_COUNT; i++) {
+            seededNames.add(PREFIXES[i % PREFIXES.length] + (i / PREFIXES.length));
+        }
+    }
+
+    @BeforeEach
+    public void resetLimiter() {
+        ApiInvoker.shared().getLimiter().reset();
+    }
+
+    @Test
+    public void list_PagesThroughEveryLogGroupInOrder() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient().addLogGroups(seededNames);
+        final ListHandler handler = new ListHandler(() -> client, client::async, Translator.MAX_LIST_PAGE_LIMIT, 1000,
+            Duration.ofSeconds(10), 1);
+
+        final List<String> listed = listAll(handler);
+
+        assertThat(listed).containsExactlyElementsOf(seededNames);
+        assertThat(client.callCount("DescribeLogGroups"))
+            .isEqualTo(LOG_GROUP_COUNT / Translator.MAX_LIST_PAGE_LIMIT);
+    }
+
+    @Test
+    public void list_ShardedListingCoversEveryLogGroupOnce() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient().addLogGroups(seededNames);
+        final ListHandler handler = new ListHandler(() -> client, client::async, Translator.MAX_LIST_PAGE_LIMIT, 1000,
+            Duration.ofSeconds(10), 8);
+
+        final List<String> listed = listAll(handler);
+
+        assertThat(listed).hasSize(LOG_GROUP_COUNT);
+        assertThat(new TreeSet<>(listed)).isEqualTo(seededNames);
+    }
+
+    @Test
+    public void list_RecoversFromThrottling() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(seededNames.headSet("/aws/lambda/fn-2000"))
+            .withThrottleProbability(0.1, 7);
+        final ListHandler handler = new ListHandler(() -> client, client::async, Translator.MAX_LIST_PAGE_LIMIT, 1000,
+            Duration.ofSeconds(10), 1);
+
+        final List<String> listed = listAll(handler);
+
+        assertThat(listed).containsExactlyElementsOf(seededNames.headSet("/aws/lambda/fn-2000"));
+        assertThat(client.throttleCount()).isPositive();
+    }
+
+    /**
+     * Lists all 100,000 groups with budgets of 20 and 200 pages per invocation. The
+     * memory a listing churns through should track the groups returned, not the
+     * pages gathered: per group it stays small and does not grow with the budget.
+     */
+    @Test
+    public void list_AllocationPerGroupStaysFlatAsPageBudgetGrows() {
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient().addLogGroups(seededNames);
+
+        final long twentyPages = allocatedBytesPerListedGroup(threads, new ListHandler(() -> client, client::async,
+            Translator.MAX_LIST_PAGE_LIMIT, 1000, Duration.ofMinutes(1), 1));
+        final long twoHundredPages = allocatedBytesPerListedGroup(threads, new ListHandler(() -> client, client::async,
+            Translator.MAX_LIST_PAGE_LIMIT, 10_000, Duration.ofMinutes(1), 1));
+
+        assertThat(twentyPages).isLessThan(MAX_LIST_BYTES_PER_GROUP);
+        assertThat(twoHundredPages).isLessThanOrEqualTo(twentyPages + twentyPages / 4);
+    }
+
+    @Test
+    public void read_FindsExactNameAmongPrefixCollisions() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient().addLogGroups(seededNames);
+        final ReadHandler handler = new ReadHandler(() -> client,
+            new LogGroupCache(Duration.ofMinutes(1), 1000, System::nanoTime));
+        final Random random = new Random(11);
+        final Set<String> distinctNames = new HashSet<>();
+
+        final int reads = 1000;
+        for (int i = 0; i < reads; i++) {
+            // Every "/aws/lambda/fn-N" with N below 2000 shares its name as a prefix with ten or more others.
+            final String logGroupName = "/aws/lambda/fn-" + random.nextInt(2000);
+            distinctNames.add(logGroupName);
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request(logGroupName, null), null, LOGGER);
+
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            assertThat(response.getResourceModel().getLogGroupName()).isEqualTo(logGroupName);
+        }
+        // Repeated names are served by the read cache.
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(distinctNames.size());
+    }
+
+    @Test
+    public void createUpdateDelete_CompleteUnderThrottling() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(seededNames)
+            .withThrottleProbability(0.2, 3);
+        final CreateHandler createHandler = new CreateHandler(client::async);
+        final UpdateHandler updateHandler = new UpdateHandler(() -> client);
+        final DeleteHandler deleteHandler = new DeleteHandler(() -> client);
+
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            names.add("load-test-" + i);
+        }
+
+        for (final String name : names) {
+            assertThat(untilDone(createHandler, request(name, 7)).getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        }
+        assertThat(names.stream().map(name -> client.logGroup(name).get().retentionInDays())
+            .collect(Collectors.toList())).containsOnly(7);
+
+        for (final String name : names) {
+            assertThat(untilDone(updateHandler, request(name, 30)).getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        }
+        assertThat(names.stream().map(name -> client.logGroup(name).get().retentionInDays())
+            .collect(Collectors.toList())).containsOnly(30);
+
+        for (final String name : names) {
+            assertThat(untilDone(deleteHandler, request(name, 30)).getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        }
+        assertThat(client.size()).isEqualTo(LOG_GROUP_COUNT);
+        assertThat(client.throttleCount()).isPositive();
+    }
+
+    /**
+     * 32 reads of one group arrive together against a service that takes 50 ms per
+     * call, with the read cache off. Readers that arrive while a call is in flight
+     * share it, so the service sees a handful of calls rather than 32.
+     */
+    @Test
+    public void read_ConcurrentReadsOfOneGroupShareCalls() throws Exception {
+        final int readers = 32;
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(seededNames)
+            .withLatency(Duration.ofMillis(50));
+        final LogGroupCache cache = new LogGroupCache(Duration.ZERO, 1, System::nanoTime);
+        final ReadHandler handler = new ReadHandler(() -> client, cache);
+        final CyclicBarrier start = new CyclicBarrier(readers);
+        final ExecutorService pool = Executors.newFixedThreadPool(readers);
+        try {
+            final List<Future<ProgressEvent<ResourceModel, CallbackContext>>> responses = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                responses.add(pool.submit(() -> {
+                    start.await();
+                    return handler.handleRequest(proxy, request("/aws/lambda/fn-1", null), null, LOGGER);
+                }));
+            }
+            for (final Future<ProgressEvent<ResourceModel, CallbackContext>> response : responses) {
+                assertThat(response.get(10, TimeUnit.SECONDS).getResourceModel().getLogGroupName())
+                    .isEqualTo("/aws/lambda/fn-1");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(client.callCount("DescribeLogGroups")).isLessThanOrEqualTo(readers / 8);
+        assertThat(cache.coalescedReads()).isEqualTo(readers - client.callCount("DescribeLogGroups"));
+    }
+
+    @Test
+    public void createUpdate_ReplayedRequestsSendNoDuplicateMutations() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        final LogGroupCache cache = new LogGroupCache(Duration.ZERO, 1, System::nanoTime);
+        final IdempotencyLedger ledger = new IdempotencyLedger(Duration.ofMinutes(30), 1000, System::nanoTime);
+        final CreateHandler createHandler = new CreateHandler(client::async, cache, ledger);
+        final UpdateHandler updateHandler = new UpdateHandler(() -> client, cache, ledger);
+        final int groups = 50;
+        final int attempts = 3;
+
+        for (int i = 0; i < groups; i++) {
+            for (int attempt = 0; attempt < attempts; attempt++) {
+                final ResourceHandlerRequest<ResourceModel> create = request("replay-" + i, 7);
+                create.setClientRequestToken("create-" + i);
+                assertThat(untilDone(createHandler, create).getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            }
+            for (int attempt = 0; attempt < attempts; attempt++) {
+                final ResourceHandlerRequest<ResourceModel> update = request("replay-" + i, 30);
+                update.setClientRequestToken("update-" + i);
+                assertThat(untilDone(updateHandler, update).getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            }
+        }
+
+        assertThat(client.callCount("CreateLogGroup")).isEqualTo(groups);
+        assertThat(client.callCount("PutRetentionPolicy")).isEqualTo(2 * groups);
+        // Each replayed create skips two steps, each replayed update one.
+        assertThat(ledger.replayedSteps()).isEqualTo((attempts - 1) * groups * 3L);
+    }
+
+    private long allocatedBytesPerListedGroup(final ThreadMXBean threads, final ListHandler handler) {
+        final long threadId = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        long listed = 0;
+        String nextToken = null;
+        do {
+            final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
+                ResourceHandlerRequest.<ResourceModel>builder().nextToken(nextToken).build(), null, LOGGER);
+            listed += response.getResourceModels().size();
+            nextToken = response.getNextToken();
+        } while (nextToken != null);
+        assertThat(listed).isEqualTo(LOG_GROUP_COUNT);
+        return (threads.getThreadAllocatedBytes(threadId) - before) / listed;
+    }
+
+    private List<String> listAll(final ListHandler handler) {
+        final List<String> listed = new ArrayList<>();
+        String nextToken = null;
+        do {
+            final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .nextToken(nextToken)
+                .build();
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, LOGGER);
+
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            listed.addAll(response.getResourceModels().stream()
+                .map(ResourceModel::getLogGroupName)
+                .collect(Collectors.toList()));
+            nextToken = response.getNextToken();
+        } while (nextToken != null);
+        return listed;
+    }
+
+    /**
+     * Re-invokes the handler with the returned callback context, as CloudFormation
+     * does, ignoring the requested delay.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> untilDone(
+        final BaseHandler<CallbackContext> handler,
+        final ResourceHandlerRequest<ResourceModel> request) {
+        CallbackContext callbackContext = null;
+        for (int invocation = 0; invocation < 50; invocation++) {
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, callbackContext, LOGGER);
+            if (response.getStatus() != OperationStatus.IN_PROGRESS) {
+                return response;
+            }
+            callbackContext = response.getCallbackContext();
+        }
+        throw new AssertionError("Handler did not finish for " + request.getDesiredResourceState());
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> request(final String logGroupName,
+                                                                 final Integer retentionInDays) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder()
+                .logGroupName(logGroupName)
+                .retentionInDays(retentionInDays)
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,222 @@
+package software.amazon.logs.loggroup;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.TagLogGroupRequest;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HandlerMetricsTest {
+
+    @Test
+    public void instrument_WritesHandlerAndOperationLines() {
+        final List<String> lines = new ArrayList<>();
+
+        final ProgressEvent<ResourceModel, CallbackContext> progress = HandlerMetrics.instrument("ReadHandler",
+            lines::add, metrics -> {
+                metrics.recordCall("DescribeLogGroups", 12, 30, 200);
+                metrics.recordCall("DescribeLogGroups", 8, 30, 100);
+                return ProgressEvent.defaultSuccessHandler(null);
+            });
+
+        assertThat(progress.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(lines).hasSize(2);
+
+        final JSONObject handlerLine = new JSONObject(lines.get(0));
+        assertDirective(handlerLine, "Handler");
+        assertThat(metricNames(handlerLine)).containsExactly("Latency", "Errors", "ApiCalls");
+        assertThat(handlerLine.getString("Handler")).isEqualTo("ReadHandler");
+        assertThat(handlerLine.getString("Outcome")).isEqualTo("SUCCESS");
+        assertThat(handlerLine.getLong("Latency")).isGreaterThanOrEqualTo(0);
+        assertThat(handlerLine.getInt("Errors")).isEqualTo(0);
+        assertThat(handlerLine.getLong("ApiCalls")).isEqualTo(2);
+
+        final JSONObject operationLine = new JSONObject(lines.get(1));
+        assertDirective(operationLine, "Handler", "Operation");
+        assertThat(metricNames(operationLine))
+            .containsExactly("Latency", "Calls", "Throttles", "Retries", "Errors", "BytesOut", "BytesIn");
+        assertThat(operationLine.getString("Handler")).isEqualTo("ReadHandler");
+        assertThat(operationLine.getString("Operation")).isEqualTo("DescribeLogGroups");
+        assertThat(operationLine.getJSONArray("Latency").toList()).containsExactly(12, 8);
+        assertThat(operationLine.getLong("Calls")).isEqualTo(2);
+        assertThat(operationLine.getLong("BytesOut")).isEqualTo(60);
+        assertThat(operationLine.getLong("BytesIn")).isEqualTo(300);
+    }
+
+    @Test
+    public void instrument_ExceptionIsCountedAndRethrown() {
+        final List<String> lines = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> HandlerMetrics.instrument("DeleteHandler", lines::add,
+            metrics -> {
+                metrics.recordCall("DeleteLogGroup", 5, 10, 0);
+                metrics.recordError("DeleteLogGroup");
+                throw new IllegalStateException();
+            }));
+
+        final JSONObject handlerLine = new JSONObject(lines.get(0));
+        assertThat(handlerLine.getString("Outcome")).isEqualTo("IllegalStateException");
+        assertThat(handlerLine.getInt("Errors")).isEqualTo(1);
+        assertThat(new JSONObject(lines.get(1)).getLong("Errors")).isEqualTo(1);
+    }
+
+    @Test
+    public void instrument_ReportsReplayedStepsOnlyWhenThereWereAny() {
+        final List<String> lines = new ArrayList<>();
+
+        HandlerMetrics.instrument("UpdateHandler", lines::add, metrics -> ProgressEvent.defaultSuccessHandler(null));
+        HandlerMetrics.instrument("UpdateHandler", lines::add, metrics -> {
+            metrics.recordReplayedStep();
+            metrics.recordReplayedStep();
+            return ProgressEvent.defaultSuccessHandler(null);
+        });
+
+        assertThat(new JSONObject(lines.get(0)).has("ReplayedSteps")).isFalse();
+        final JSONObject replayed = new JSONObject(lines.get(1));
+        assertThat(metricNames(replayed)).contains("ReplayedSteps");
+        assertThat(replayed.getLong("ReplayedSteps")).isEqualTo(2);
+    }
+
+    @Test
+    public void instrument_FailedEventReportsItsErrorCode() {
+        final List<String> lines = new ArrayList<>();
+
+        HandlerMetrics.instrument("ReadHandler", lines::add, metrics -> HandlerErrors.notFound(null));
+
+        assertThat(new JSONObject(lines.get(0)).getString("Outcome")).isEqualTo("NotFound");
+    }
+
+    @Test
+    public void toEmfLines_CountsThrottlesAndRetries() {
+        final HandlerMetrics metrics = new HandlerMetrics("UpdateHandler");
+        metrics.recordCall("PutRetentionPolicy", 3, 10, 0);
+        metrics.recordThrottle("PutRetentionPolicy");
+        metrics.recordRetry("PutRetentionPolicy");
+        metrics.recordCall("PutRetentionPolicy", 4, 10, 0);
+
+        final JSONObject operationLine = new JSONObject(metrics.toEmfLines(0, 0, "IN_PROGRESS").get(1));
+
+        assertThat(operationLine.getLong("Calls")).isEqualTo(2);
+        assertThat(operationLine.getLong("Throttles")).isEqualTo(1);
+        assertThat(operationLine.getLong("Retries")).isEqualTo(1);
+        assertThat(operationLine.getLong("Errors")).isEqualTo(0);
+    }
+
+    @Test
+    public void toEmfLines_SplitsLongLatencySeries() {
+        final HandlerMetrics metrics = new HandlerMetrics("ListHandler");
+        for (int i = 0; i < 250; i++) {
+            metrics.recordCall("DescribeLogGroups", i, 10, 10);
+        }
+
+        final List<JSONObject> lines = metrics.toEmfLines(1000, 0, "SUCCESS").stream()
+            .map(JSONObject::new)
+            .collect(Collectors.toList());
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(1).getJSONArray("Latency").length()).isEqualTo(HandlerMetrics.MAX_VALUES_PER_METRIC);
+        assertThat(lines.get(1).getLong("Calls")).isEqualTo(250);
+        assertThat(lines.get(3).getJSONArray("Latency").length()).isEqualTo(50);
+        assertThat(metricNames(lines.get(3))).containsExactly("Latency");
+        assertThat(lines.get(3).has("Calls")).isFalse();
+        assertThat(lines.get(3).getJSONObject("_aws").getLong("Timestamp")).isEqualTo(1000);
+    }
+
+    @Test
+    public void toEmfLines_ReportsStabilization() {
+        final HandlerMetrics metrics = new HandlerMetrics("CreateHandler");
+        metrics.recordStabilization(3, 7000);
+
+        final JSONObject handlerLine = new JSONObject(metrics.toEmfLines(0, 0, "SUCCESS").get(0));
+
+        assertThat(metricNames(handlerLine)).contains("StabilizationPolls", "StabilizationLatency");
+        assertThat(handlerLine.getLong("StabilizationPolls")).isEqualTo(3);
+        assertThat(handlerLine.getLong("StabilizationLatency")).isEqualTo(7000);
+    }
+
+    @Test
+    public void toEmfLines_ReportsCacheLookupsOnlyWhenRecorded() {
+        final HandlerMetrics metrics = new HandlerMetrics("ReadHandler");
+        assertThat(metricNames(new JSONObject(metrics.toEmfLines(0, 0, "SUCCESS").get(0))))
+            .doesNotContain("CacheHits", "CacheMisses");
+
+        metrics.recordCacheLookup(true);
+        metrics.recordCacheLookup(true);
+        metrics.recordCacheLookup(false);
+        final JSONObject handlerLine = new JSONObject(metrics.toEmfLines(0, 0, "SUCCESS").get(0));
+
+        assertThat(metricNames(handlerLine)).contains("CacheHits", "CacheMisses");
+        assertThat(handlerLine.getLong("CacheHits")).isEqualTo(2);
+        assertThat(handlerLine.getLong("CacheMisses")).isEqualTo(1);
+    }
+
+    @Test
+    public void payloadBytes_SumsMemberValues() {
+        final DescribeLogGroupsResponse response = DescribeLogGroupsResponse.builder()
+            .logGroups(LogGroup.builder().logGroupName("abc").retentionInDays(14).build())
+            .nextToken("xy")
+            .build();
+        final TagLogGroupRequest tagRequest = TagLogGroupRequest.builder()
+            .logGroupName("abc")
+            .tags(Collections.singletonMap("key", "value"))
+            .build();
+
+        assertThat(HandlerMetrics.payloadBytes(null)).isEqualTo(0);
+        assertThat(HandlerMetrics.payloadBytes(response)).isEqualTo("abc".length() + "14".length() + "xy".length());
+        assertThat(HandlerMetrics.payloadBytes(tagRequest)).isEqualTo("abc".length() + "keyvalue".length());
+        assertThat(HandlerMetrics.payloadBytes(1.5D)).isEqualTo(3);
+    }
+
+    @Test
+    public void utf8Length_MatchesEncodedLength() {
+        for (final String value : Arrays.asList("", "ascii", "caf\u00e9", "\u65e5\u672c", "\ud83d\ude00x",
+                "\ud83d", "\ud83dx", "\ude00")) {
+            assertThat(HandlerMetrics.utf8Length(value))
+                .as(value)
+                .isEqualTo(value.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    public void decimalLength_MatchesToStringLength() {
+        for (final long value : new long[] {0, 9, 10, -1, -9, -10, 1_792_325_338_710L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertThat(HandlerMetrics.decimalLength(value)).as(String.valueOf(value))
+                .isEqualTo(String.valueOf(value).length());
+        }
+        assertThat(HandlerMetrics.payloadBytes(-42)).isEqualTo(3);
+    }
+
+    private static void assertDirective(final JSONObject line, final String... dimensions) {
+        final JSONObject directive = line.getJSONObject("_aws").getJSONArray("CloudWatchMetrics").getJSONObject(0);
+        assertThat(directive.getString("Namespace")).isEqualTo(HandlerMetrics.NAMESPACE);
+        assertThat(directive.getJSONArray("Dimensions").getJSONArray(0).toList()).containsExactly((Object[]) dimensions);
+        for (final String dimension : dimensions) {
+            assertThat(line.has(dimension)).isTrue();
+        }
+    }
+
+    private static List<String> metricNames(final JSONObject line) {
+        final JSONArray metrics = line.getJSONObject("_aws").getJSONArray("CloudWatchMetrics").getJSONObject(0)
+            .getJSONArray("Metrics");
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < metrics.length(); i++) {
+            final JSONObject metric = metrics.getJSONObject(i);
+            assertThat(line.has(metric.getString("Name"))).isTrue();
+            names.add(metric.getString("Name"));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,77 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdempotencyLedgerTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final IdempotencyLedger ledger = new IdempotencyLedger(Duration.ofSeconds(60), 2, clock::get);
+    private final HandlerMetrics metrics = new HandlerMetrics("IdempotencyLedgerTest");
+
+    @Test
+    public void isCompleted_OnlyForStepsTheRequestCompleted() {
+        final IdempotencyLedger.Key key = key("token", "LogGroup");
+
+        ledger.complete(key, IdempotencyLedger.Step.LOG_GROUP_CREATED);
+
+        assertThat(ledger.isCompleted(key, IdempotencyLedger.Step.LOG_GROUP_CREATED, metrics)).isTrue();
+        assertThat(ledger.isCompleted(key, IdempotencyLedger.Step.RETENTION_POLICY_APPLIED, metrics)).isFalse();
+        assertThat(ledger.isCompleted(key("other-token", "LogGroup"), IdempotencyLedger.Step.LOG_GROUP_CREATED,
+            metrics)).isFalse();
+        assertThat(ledger.isCompleted(key("token", "OtherLogGroup"), IdempotencyLedger.Step.LOG_GROUP_CREATED,
+            metrics)).isFalse();
+        assertThat(ledger.replayedSteps()).isEqualTo(1);
+    }
+
+    @Test
+    public void complete_IgnoresRequestsWithoutAToken() {
+        final IdempotencyLedger.Key key = key(null, "LogGroup");
+
+        ledger.complete(key, IdempotencyLedger.Step.LOG_GROUP_DELETED);
+
+        assertThat(key).isNull();
+        assertThat(ledger.isCompleted(key, IdempotencyLedger.Step.LOG_GROUP_DELETED, metrics)).isFalse();
+        assertThat(ledger.size()).isZero();
+    }
+
+    @Test
+    public void isCompleted_ForgetsExpiredRequests() {
+        final IdempotencyLedger.Key key = key("token", "LogGroup");
+        ledger.complete(key, IdempotencyLedger.Step.RETENTION_POLICY_UPDATED);
+
+        clock.addAndGet(Duration.ofSeconds(60).toNanos());
+
+        assertThat(ledger.isCompleted(key, IdempotencyLedger.Step.RETENTION_POLICY_UPDATED, metrics)).isFalse();
+        assertThat(ledger.size()).isZero();
+    }
+
+    @Test
+    public void complete_EvictsTheLeastRecentlyUsedRequest() {
+        ledger.complete(key("a", "LogGroup"), IdempotencyLedger.Step.LOG_GROUP_CREATED);
+        ledger.complete(key("b", "LogGroup"), IdempotencyLedger.Step.LOG_GROUP_CREATED);
+        ledger.isCompleted(key("a", "LogGroup"), IdempotencyLedger.Step.LOG_GROUP_CREATED, metrics);
+
+        ledger.complete(key("c", "LogGroup"), IdempotencyLedger.Step.LOG_GROUP_CREATED);
+
+        assertThat(ledger.size()).isEqualTo(2);
+        assertThat(ledger.isCompleted(key("a", "LogGroup"), IdempotencyLedger.Step.LOG_GROUP_CREATED, metrics))
+            .isTrue();
+        assertThat(ledger.isCompleted(key("b", "LogGroup"), IdempotencyLedger.Step.LOG_GROUP_CREATED, metrics))
+            .isFalse();
+    }
+
+    private static IdempotencyLedger.Key key(final String clientRequestToken, final String logGroupName) {
+        final ResourceModel model = ResourceModel.builder().logGroupName(logGroupName).build();
+        return IdempotencyLedger.Key.of(ResourceHandlerRequest.<ResourceModel>builder()
+            .awsAccountId("123456789012")
+            .region("us-east-1")
+            .clientRequestToken(clientRequestToken)
+            .desiredResourceState(model)
+            .build(), model);
+    }
+}
@@ -8,17 +8,25 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
 import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
 import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class ListHandlerTest {
@@ -33,7 +41,7 @@ public class ListHandlerTest {
     @BeforeEach
     public void setup() {
         handler = new ListHandler();
-        proxy = mock(AmazonWebServicesClientProxy.class);
+        proxy = FakeCloudWatchLogsClient.mockProxy();
         logger = mock(Logger.class);
     }
 
@@ -85,4 +93,154 @@ public class ListHandlerTest {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_AggregatesPagesUntilExhausted() {
+        final DescribeLogGroupsResponse firstPage = DescribeLogGroupsResponse.builder()
+                .logGroups(LogGroup.builder().logGroupName("LogGroup").build())
+                .nextToken("token2")
+                .build();
+        final DescribeLogGroupsResponse lastPage = DescribeLogGroupsResponse.builder()
+                .logGroups(LogGroup.builder().logGroupName("LogGroup2").build())
+                .build();
+
+        doReturn(firstPage, lastPage)
+            .when(proxy)
+            .injectCredentialsAndInvokeV2(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any()
+            );
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).extracting(ResourceModel::getLogGroupName)
+                .containsExactly("LogGroup", "LogGroup2");
+        assertThat(response.getNextToken()).isNull();
+
+        final ArgumentCaptor<DescribeLogGroupsRequest> captor = ArgumentCaptor.forClass(DescribeLogGroupsRequest.class);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(captor.capture(), ArgumentMatchers.any());
+        assertThat(captor.getAllValues()).extracting(DescribeLogGroupsRequest::nextToken)
+                .containsExactly(null, "token2");
+    }
+
+    @Test
+    public void handleRequest_StopsAtResultBudget() {
+        handler = new ListHandler(2, 5, Duration.ofMinutes(1));
+        final DescribeLogGroupsResponse page = DescribeLogGroupsResponse.builder()
+                .logGroups(LogGroup.builder().logGroupName("LogGroup").build(),
+                    LogGroup.builder().logGroupName("LogGroup2").build())
+                .nextToken("token2")
+                .build();
+
+        doReturn(page)
+            .when(proxy)
+            .injectCredentialsAndInvokeV2(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any()
+            );
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getResourceModels()).hasSize(4);
+        assertThat(response.getNextToken()).isEqualTo("token2");
+
+        final ArgumentCaptor<DescribeLogGroupsRequest> captor = ArgumentCaptor.forClass(DescribeLogGroupsRequest.class);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(captor.capture(), ArgumentMatchers.any());
+        assertThat(captor.getAllValues()).extracting(DescribeLogGroupsRequest::limit).containsOnly(2);
+    }
+
+    @Test
+    public void handleRequest_StopsAtTimeBudget() {
+        handler = new ListHandler(50, 1000, Duration.ZERO);
+        final DescribeLogGroupsResponse page = DescribeLogGroupsResponse.builder()
+                .logGroups(LogGroup.builder().logGroupName("LogGroup").build())
+                .nextToken("token2")
+                .build();
+
+        doReturn(page)
+            .when(proxy)
+            .injectCredentialsAndInvokeV2(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any()
+            );
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getResourceModels()).hasSize(1);
+        assertThat(response.getNextToken()).isEqualTo("token2");
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void handleRequest_ShardedListing() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+                .addLogGroups(Arrays.asList("/aws/lambda/a", "LogGroup", "app"));
+        handler = new ListHandler(() -> client, client::async, 50, 1000, Duration.ofMinutes(1), 4);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).extracting(ResourceModel::getLogGroupName)
+                .containsExactly("/aws/lambda/a", "LogGroup", "app");
+        assertThat(response.getNextToken()).isNull();
+    }
+
+    @Test
+    public void handleRequest_ShardedTokenResumedAsSharded() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+                .addLogGroups(Arrays.asList("LogGroup", "app"));
+        handler = new ListHandler(() -> client, client::async, 50, 1000, Duration.ofMinutes(1), 1);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .nextToken(ShardedLogGroupLister.encodeToken(Collections.singletonMap("a", "")))
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+        assertThat(response.getResourceModels()).extracting(ResourceModel::getLogGroupName).containsExactly("app");
+        assertThat(response.getNextToken()).isNull();
+    }
+
+    @Test
+    public void handleRequest_StopsAtInvocationDeadline() {
+        final List<String> logGroupNames = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            logGroupNames.add(String.format("LogGroup-%03d", i));
+        }
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient().addLogGroups(logGroupNames);
+        handler = new ListHandler(() -> client, client::async, 50, 1000, Duration.ofMinutes(1), 1);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(
+            FakeCloudWatchLogsClient.proxy(() -> 1_000L), ResourceHandlerRequest.<ResourceModel>builder().build(),
+            null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).hasSize(50);
+        assertThat(response.getNextToken()).isNotNull();
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(1);
+    }
+
+    @Test
+    public void parseSetting() {
+        assertThat(ListHandler.parseSetting(null, 1, 50, 50)).isEqualTo(50);
+        assertThat(ListHandler.parseSetting("not a number", 1, 50, 50)).isEqualTo(50);
+        assertThat(ListHandler.parseSetting(" 20 ", 1, 50, 50)).isEqualTo(20);
+        assertThat(ListHandler.parseSetting("0", 1, 50, 50)).isEqualTo(1);
+        assertThat(ListHandler.parseSetting("500", 1, 50, 50)).isEqualTo(50);
+    }
 }
@@ -0,0 +1,122 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LogGroupCacheTest {
+    private static final LogGroupCache.Key KEY = new LogGroupCache.Key("123456789012", "us-east-1", "LogGroup");
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final HandlerMetrics metrics = new HandlerMetrics("ReadHandler");
+    private LogGroupCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new LogGroupCache(Duration.ofSeconds(10), 2, clock::get);
+    }
+
+    @Test
+    public void read_ServesRepeatedReadsUntilTheEntryExpires() {
+        assertThat(cache.read(KEY, metrics, () -> load(7))).map(LogGroup::retentionInDays).contains(7);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertThat(cache.read(KEY, metrics, () -> load(14))).map(LogGroup::retentionInDays).contains(7);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(cache.read(KEY, metrics, () -> load(14))).map(LogGroup::retentionInDays).contains(14);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(2);
+    }
+
+    @Test
+    public void shared_IsOffByDefault() {
+        assumeTrue(System.getenv(LogGroupCache.TTL_ENVIRONMENT_VARIABLE) == null);
+        final LogGroupCache.Key key = new LogGroupCache.Key("123456789012", "us-east-1", "SharedCacheDefault");
+
+        LogGroupCache.shared().read(key, metrics, () -> load(7));
+        LogGroupCache.shared().read(key, metrics, () -> load(7));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void read_KeysByAccountRegionAndName() {
+        cache.read(KEY, metrics, () -> load(7));
+        cache.read(new LogGroupCache.Key("210987654321", "us-east-1", "LogGroup"), metrics, () -> load(7));
+        cache.read(new LogGroupCache.Key("123456789012", "eu-west-1", "LogGroup"), metrics, () -> load(7));
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.hits()).isZero();
+    }
+
+    @Test
+    public void read_EvictsTheLeastRecentlyUsedEntryWhenFull() {
+        final LogGroupCache.Key other = new LogGroupCache.Key("123456789012", "us-east-1", "Other");
+        final LogGroupCache.Key third = new LogGroupCache.Key("123456789012", "us-east-1", "Third");
+        cache.read(KEY, metrics, () -> load(7));
+        cache.read(other, metrics, () -> load(7));
+        cache.read(KEY, metrics, () -> load(7));
+        cache.read(third, metrics, () -> load(7));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(1);
+        cache.read(KEY, metrics, () -> load(7));
+        cache.read(other, metrics, () -> load(7));
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void read_DoesNotCacheMissingGroups() {
+        cache.read(KEY, metrics, Optional::empty);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.read(KEY, metrics, () -> load(7))).isPresent();
+    }
+
+    @Test
+    public void invalidate_DropsTheEntry() {
+        cache.read(KEY, metrics, () -> load(7));
+
+        cache.invalidate(KEY);
+
+        assertThat(cache.read(KEY, metrics, () -> load(30))).map(LogGroup::retentionInDays).contains(30);
+    }
+
+    @Test
+    public void read_DoesNotStoreAValueLoadedAcrossAnInvalidation() {
+        cache.read(KEY, metrics, () -> {
+            cache.invalidate(KEY);
+            return load(7);
+        });
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.read(KEY, metrics, () -> load(30))).map(LogGroup::retentionInDays).contains(30);
+    }
+
+    @Test
+    public void read_ZeroTimeToLiveTurnsTheCacheOff() {
+        final LogGroupCache disabled = new LogGroupCache(Duration.ZERO, 2, clock::get);
+
+        disabled.read(KEY, metrics, () -> load(7));
+        disabled.read(KEY, metrics, () -> load(7));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(disabled.misses()).isZero();
+    }
+
+    private Optional<LogGroup> load(final int retentionInDays) {
+        loads.incrementAndGet();
+        return Optional.of(LogGroup.builder().logGroupName("LogGroup").retentionInDays(retentionInDays).build());
+    }
+}
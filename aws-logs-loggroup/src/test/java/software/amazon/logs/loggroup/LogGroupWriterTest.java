@@ -0,0 +1,83 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LogGroupWriterTest {
+    private final AmazonWebServicesClientProxy proxy = FakeCloudWatchLogsClient.proxy();
+    private final HandlerMetrics metrics = new HandlerMetrics("LogGroupWriterTest");
+
+    private FakeCloudWatchLogsClient client;
+    private LogGroupWriter writer;
+
+    @BeforeEach
+    public void setup() {
+        client = new FakeCloudWatchLogsClient();
+        writer = new LogGroupWriter(() -> client, client::async);
+    }
+
+    @Test
+    public void createLogGroupAsync_CreatesTheGroup() {
+        ApiInvoker.join(writer.createLogGroupAsync(proxy, model("new", 7), metrics));
+
+        assertThat(client.logGroup("new")).isPresent();
+        assertThat(client.logGroup("new").get().retentionInDays()).isNull();
+    }
+
+    @Test
+    public void createLogGroupAsync_ExistingGroupIsAlreadyExists() {
+        client.addLogGroups(Collections.singletonList("existing"));
+
+        assertThrows(CfnAlreadyExistsException.class,
+            () -> ApiInvoker.join(writer.createLogGroupAsync(proxy, model("existing", 7), metrics)));
+    }
+
+    @Test
+    public void createLogGroupAsync_RetriesThrottledCalls() {
+        client.throttleNext(3);
+
+        ApiInvoker.join(writer.createLogGroupAsync(proxy, model("throttled", null), metrics));
+
+        assertThat(client.throttleCount()).isEqualTo(3);
+        assertThat(client.logGroup("throttled")).isPresent();
+    }
+
+    @Test
+    public void putRetentionPolicyAsync_SetsTheRetention() {
+        client.addLogGroups(Collections.singletonList("existing"));
+
+        ApiInvoker.join(writer.putRetentionPolicyAsync(proxy, model("existing", 30), metrics));
+
+        assertThat(client.logGroup("existing").get().retentionInDays()).isEqualTo(30);
+    }
+
+    @Test
+    public void putRetentionPolicyAsync_MissingGroupIsNotFound() {
+        assertThrows(ResourceNotFoundException.class,
+            () -> ApiInvoker.join(writer.putRetentionPolicyAsync(proxy, model("missing", 30), metrics)));
+    }
+
+    @Test
+    public void putRetentionPolicy_SetsTheRetention() {
+        client.addLogGroups(Collections.singletonList("existing"));
+
+        writer.putRetentionPolicy(proxy, model("existing", 14), metrics);
+
+        assertThat(client.logGroup("existing").get().retentionInDays()).isEqualTo(14);
+    }
+
+    private static ResourceModel model(final String logGroupName, final Integer retentionInDays) {
+        return ResourceModel.builder()
+            .logGroupName(logGroupName)
+            .retentionInDays(retentionInDays)
+            .build();
+    }
+}
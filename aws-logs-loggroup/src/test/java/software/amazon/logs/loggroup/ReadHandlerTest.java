@@ -1,7 +1,7 @@
 package software.amazon.logs.loggroup;
 
-import software.amazon.cloudformation.exceptions.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -14,14 +14,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
 import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class ReadHandlerTest {
@@ -35,8 +41,8 @@ public class ReadHandlerTest {
 
     @BeforeEach
     public void setup() {
-        handler = new ReadHandler();
-        proxy = mock(AmazonWebServicesClientProxy.class);
+        handler = new ReadHandler(ClientBuilder::getClient, new LogGroupCache(Duration.ofMinutes(1), 100, System::nanoTime));
+        proxy = FakeCloudWatchLogsClient.mockProxy();
         logger = mock(Logger.class);
     }
 
@@ -78,6 +84,134 @@ public class ReadHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_Success_ExactMatchAmongPrefixCollisions() {
+        final FakeCloudWatchLogsClient client = prefixCollidingLogGroups();
+        client.putRetentionPolicy(PutRetentionPolicyRequest.builder()
+            .logGroupName("/aws/lambda/function1")
+            .retentionInDays(1)
+            .build());
+        handler = new ReadHandler(() -> client, new LogGroupCache(Duration.ofMinutes(1), 100, System::nanoTime));
+
+        final ResourceModel model = ResourceModel.builder()
+            .logGroupName("/aws/lambda/function1")
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getLogGroupName()).isEqualTo("/aws/lambda/function1");
+        assertThat(response.getResourceModel().getRetentionInDays()).isEqualTo(1);
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_RepeatedReadIsServedFromCache() {
+        final FakeCloudWatchLogsClient client = prefixCollidingLogGroups();
+        final AmazonWebServicesClientProxy fakeProxy = FakeCloudWatchLogsClient.proxy();
+        handler = new ReadHandler(() -> client, new LogGroupCache(Duration.ofMinutes(1), 100, System::nanoTime));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().logGroupName("/aws/lambda/function1").build())
+            .awsAccountId("123456789012")
+            .region("us-east-1")
+            .build();
+
+        handler.handleRequest(fakeProxy, request, null, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(fakeProxy, request, null, logger);
+
+        assertThat(response.getResourceModel().getLogGroupName()).isEqualTo("/aws/lambda/function1");
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_ReadAfterUpdateSeesNewRetention() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(Collections.singletonList("LogGroup"));
+        final AmazonWebServicesClientProxy fakeProxy = FakeCloudWatchLogsClient.proxy();
+        final LogGroupCache cache = new LogGroupCache(Duration.ofMinutes(1), 100, System::nanoTime);
+        final ReadHandler readHandler = new ReadHandler(() -> client, cache);
+        final UpdateHandler updateHandler = new UpdateHandler(() -> client, cache);
+        final ResourceHandlerRequest<ResourceModel> read = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").build())
+            .build();
+        final ResourceHandlerRequest<ResourceModel> update = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").retentionInDays(30).build())
+            .build();
+
+        assertThat(readHandler.handleRequest(fakeProxy, read, null, logger).getResourceModel().getRetentionInDays())
+            .isNull();
+        updateHandler.handleRequest(fakeProxy, update, null, logger);
+
+        assertThat(readHandler.handleRequest(fakeProxy, read, null, logger).getResourceModel().getRetentionInDays())
+            .isEqualTo(30);
+        assertThat(cache.hits()).isZero();
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(2);
+    }
+
+    @Test
+    public void handleRequest_FailureNotFound_OnlyPrefixCollisions() {
+        final FakeCloudWatchLogsClient client = prefixCollidingLogGroups();
+        handler = new ReadHandler(() -> client, new LogGroupCache(Duration.ofMinutes(1), 100, System::nanoTime));
+
+        final ResourceModel model = ResourceModel.builder()
+            .logGroupName("/aws/lambda/function")
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_Success_PagesUntilExactMatch() {
+        final DescribeLogGroupsResponse emptyPage = DescribeLogGroupsResponse.builder()
+            .logGroups(Collections.emptyList())
+            .nextToken("token")
+            .build();
+        final LogGroup logGroup = LogGroup.builder()
+            .logGroupName("LogGroup")
+            .retentionInDays(1)
+            .build();
+        final DescribeLogGroupsResponse describeResponse = DescribeLogGroupsResponse.builder()
+            .logGroups(Collections.singletonList(logGroup))
+            .nextToken("token2")
+            .build();
+
+        doReturn(emptyPage, describeResponse)
+            .when(proxy)
+            .injectCredentialsAndInvokeV2(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any()
+            );
+
+        final ResourceModel model = ResourceModel.builder()
+            .logGroupName("LogGroup")
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualToComparingFieldByField(logGroup);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
     @Test
     public void handleRequest_FailureNotFound_EmptyLogGroupResponse() {
         final DescribeLogGroupsResponse describeResponse = DescribeLogGroupsResponse.builder()
@@ -100,13 +234,15 @@ public class ReadHandlerTest {
                 .desiredResourceState(model)
                 .build();
 
-        assertThrows(ResourceNotFoundException.class,
-            () -> handler.handleRequest(proxy, request, null, logger));
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
     }
 
     @Test
     public void handleRequest_FailureNotFound_WithException() {
-        doThrow(software.amazon.awssdk.services.cloudwatchlogs.model.ResourceNotFoundException.class)
+        doThrow(ResourceNotFoundException.class)
             .when(proxy)
             .injectCredentialsAndInvokeV2(
                 ArgumentMatchers.any(),
@@ -122,8 +258,10 @@ public class ReadHandlerTest {
             .desiredResourceState(model)
             .build();
 
-        assertThrows(ResourceNotFoundException.class,
-            () -> handler.handleRequest(proxy, request, null, logger));
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
     }
 
     @Test
@@ -135,8 +273,10 @@ public class ReadHandlerTest {
             .desiredResourceState(model)
             .build();
 
-        assertThrows(ResourceNotFoundException.class,
-            () -> handler.handleRequest(proxy, request, null, logger));
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
     }
 
     @Test
@@ -144,7 +284,17 @@ public class ReadHandlerTest {
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .build();
 
-        assertThrows(ResourceNotFoundException.class,
-            () -> handler.handleRequest(proxy, request, null, logger));
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    private static FakeCloudWatchLogsClient prefixCollidingLogGroups() {
+        final List<String> logGroupNames = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            logGroupNames.add("/aws/lambda/function" + i);
+        }
+        return new FakeCloudWatchLogsClient().addLogGroups(logGroupNames);
     }
 }
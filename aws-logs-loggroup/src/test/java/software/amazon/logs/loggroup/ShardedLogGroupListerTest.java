@@ -0,0 +1,141 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.InvalidParameterException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShardedLogGroupListerTest {
+    private final AmazonWebServicesClientProxy proxy = FakeCloudWatchLogsClient.proxy();
+    private NavigableSet<String> logGroupNames;
+    private FakeCloudWatchLogsClient fake;
+    private CloudWatchLogsAsyncClient client;
+    private HandlerMetrics metrics;
+
+    @BeforeEach
+    public void setup() {
+        metrics = new HandlerMetrics("ListHandler");
+        logGroupNames = new TreeSet<>();
+        for (final char shard : ShardedLogGroupLister.SHARD_CHARACTERS.toCharArray()) {
+            for (int i = 0; i < 120; i++) {
+                logGroupNames.add(shard + "group" + i);
+            }
+        }
+        fake = new FakeCloudWatchLogsClient().addLogGroups(logGroupNames);
+        client = fake.async();
+    }
+
+    @Test
+    public void list_ResumesUntilEveryShardIsExhausted() {
+        final ShardedLogGroupLister lister = new ShardedLogGroupLister(8);
+
+        final List<String> listed = new ArrayList<>();
+        String nextToken = null;
+        int invocations = 0;
+        do {
+            final ShardedLogGroupLister.Page page =
+                lister.list(proxy, client, nextToken, 50, 1000, farDeadline(), metrics);
+            final List<String> names = new ArrayList<>();
+            page.getModels().forEach(model -> names.add(model.getLogGroupName()));
+            assertThat(names).isSorted();
+            assertThat(names.size()).isLessThanOrEqualTo(1000);
+            listed.addAll(names);
+            nextToken = page.getNextToken();
+            invocations++;
+        } while (nextToken != null);
+
+        assertThat(listed).hasSize(logGroupNames.size());
+        assertThat(new HashSet<>(listed)).isEqualTo(logGroupNames);
+        assertThat(invocations).isGreaterThan(1);
+    }
+
+    @Test
+    public void list_PagesShardsConcurrentlyUpToTheLimit() {
+        fake.withLatency(Duration.ofMillis(20));
+
+        new ShardedLogGroupLister(8).list(proxy, client, null, 50, 1000, farDeadline(), metrics);
+
+        assertThat(fake.peakConcurrency()).isBetween(2, 8);
+    }
+
+    @Test
+    public void list_StopsAtDeadlineWithTokenForRemainingShards() {
+        final ShardedLogGroupLister.Page page =
+            new ShardedLogGroupLister(4).list(proxy, client, null, 50, 1000, Deadline.after(Duration.ZERO), metrics);
+
+        assertThat(page.getModels()).hasSize(1000);
+        final TreeMap<String, String> pendingShards = ShardedLogGroupLister.decodeToken(page.getNextToken());
+        assertThat(pendingShards).hasSize(ShardedLogGroupLister.SHARD_CHARACTERS.length());
+    }
+
+    @Test
+    public void list_PropagatesServiceExceptions() {
+        // The service takes at most 50 groups per page.
+        assertThrows(InvalidParameterException.class,
+            () -> new ShardedLogGroupLister(2).list(proxy, client, null, 51, 1000, farDeadline(), metrics));
+    }
+
+    @Test
+    public void list_PageLimitAboveMaxResultsStillMakesProgress() {
+        final ShardedLogGroupLister lister = new ShardedLogGroupLister(4);
+
+        final List<String> listed = new ArrayList<>();
+        String nextToken = null;
+        do {
+            final ShardedLogGroupLister.Page page =
+                lister.list(proxy, client, nextToken, 50, 10, farDeadline(), metrics);
+            assertThat(page.getModels()).isNotEmpty().hasSizeLessThanOrEqualTo(10);
+            page.getModels().forEach(model -> listed.add(model.getLogGroupName()));
+            nextToken = page.getNextToken();
+        } while (nextToken != null);
+
+        assertThat(new HashSet<>(listed)).isEqualTo(logGroupNames);
+    }
+
+    @Test
+    public void decodeToken_MalformedTokenIsAnInvalidRequest() {
+        final String notJson = ShardedLogGroupLister.TOKEN_PREFIX
+            + Base64.getUrlEncoder().encodeToString("not json".getBytes(StandardCharsets.UTF_8));
+        final String notStrings = ShardedLogGroupLister.TOKEN_PREFIX
+            + Base64.getUrlEncoder().encodeToString("{\"a\":{}}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(CfnInvalidRequestException.class,
+            () -> ShardedLogGroupLister.decodeToken(ShardedLogGroupLister.TOKEN_PREFIX + "not base64!"));
+        assertThrows(CfnInvalidRequestException.class, () -> ShardedLogGroupLister.decodeToken(notJson));
+        assertThrows(CfnInvalidRequestException.class, () -> ShardedLogGroupLister.decodeToken(notStrings));
+    }
+
+    @Test
+    public void tokenRoundTrip() {
+        final Map<String, String> pendingShards = new TreeMap<>();
+        pendingShards.put("/", "");
+        pendingShards.put("a", "service-token");
+
+        final String token = ShardedLogGroupLister.encodeToken(pendingShards);
+
+        assertThat(ShardedLogGroupLister.isShardedToken(token)).isTrue();
+        assertThat(ShardedLogGroupLister.isShardedToken("service-token")).isFalse();
+        assertThat(ShardedLogGroupLister.isShardedToken(null)).isFalse();
+        assertThat(ShardedLogGroupLister.decodeToken(token)).isEqualTo(pendingShards);
+    }
+
+    private static Deadline farDeadline() {
+        return Deadline.after(Duration.ofMinutes(1));
+    }
+}
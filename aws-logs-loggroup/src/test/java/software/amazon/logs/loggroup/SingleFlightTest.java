@@ -0,0 +1,92 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch callStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    public void run_ConcurrentCallersShareOneCall() throws Exception {
+        final CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> singleFlight.run("a", this::slowCall));
+        callStarted.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<Integer> follower = CompletableFuture.supplyAsync(() -> singleFlight.run("a", this::slowCall));
+        waitForSharedCallers(1);
+
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void run_SharesTheException() throws Exception {
+        final CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> singleFlight.run("a", () -> {
+            slowCall();
+            throw new IllegalStateException("service failed");
+        }));
+        callStarted.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<Integer> follower = CompletableFuture.supplyAsync(() -> singleFlight.run("a", this::slowCall));
+        waitForSharedCallers(1);
+
+        release.countDown();
+
+        assertThrows(IllegalStateException.class, () -> ApiInvoker.join(leader));
+        assertThrows(IllegalStateException.class, () -> ApiInvoker.join(follower));
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void run_CallsAgainOnceTheCallHasFinished() {
+        release.countDown();
+
+        singleFlight.run("a", this::slowCall);
+        singleFlight.run("a", this::slowCall);
+        singleFlight.run("b", this::slowCall);
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(singleFlight.shared()).isZero();
+    }
+
+    @Test
+    public void forget_LaterCallersStartANewCall() throws Exception {
+        final CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> singleFlight.run("a", this::slowCall));
+        callStarted.await(5, TimeUnit.SECONDS);
+
+        singleFlight.forget("a");
+        release.countDown();
+
+        assertThat(singleFlight.run("a", this::slowCall)).isEqualTo(2);
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(singleFlight.shared()).isZero();
+    }
+
+    private Integer slowCall() {
+        final int call = calls.incrementAndGet();
+        callStarted.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return call;
+    }
+
+    private void waitForSharedCallers(final long expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.shared() < expected && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ThrottledProgressTest {
+    private static final ResourceModel MODEL = ResourceModel.builder().logGroupName("LogGroup").build();
+
+    @Test
+    public void retryLater_ReturnsInProgressWithDelay() {
+        final CallbackContext context = CallbackContext.builder().logGroupCreated(true).build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> event =
+            ThrottledProgress.retryLater(new CfnThrottlingException("CreateLogGroup"), MODEL, context);
+
+        assertThat(event.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(event.getResourceModel()).isEqualTo(MODEL);
+        assertThat(event.getCallbackContext().isLogGroupCreated()).isTrue();
+        assertThat(event.getCallbackContext().getThrottleCallbacks()).isEqualTo(1);
+        assertThat(event.getCallbackDelaySeconds()).isEqualTo(Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS);
+    }
+
+    @Test
+    public void retryLater_RethrowsOnceCallbacksAreExhausted() {
+        final CallbackContext context = CallbackContext.builder()
+            .throttleCallbacks(ThrottledProgress.MAX_THROTTLE_CALLBACKS)
+            .build();
+        final CfnThrottlingException exception = new CfnThrottlingException("CreateLogGroup");
+
+        assertThat(assertThrows(CfnThrottlingException.class,
+            () -> ThrottledProgress.retryLater(exception, MODEL, context))).isSameAs(exception);
+    }
+
+    @Test
+    public void callbackDelaySeconds_GrowsToCap() {
+        for (int callbacks = 1; callbacks < 20; callbacks++) {
+            final int ceiling = Math.min(300, 60 << Math.min(callbacks - 1, 10));
+            assertThat(ThrottledProgress.callbackDelaySeconds(callbacks))
+                .isBetween(Math.max(60, ceiling - ceiling / 2), ceiling);
+        }
+    }
+
+    @Test
+    public void callbackDelaySeconds_NeverLetsTheWrapperReinvokeInPlace() {
+        for (int i = 0; i < 1000; i++) {
+            for (int callbacks = 1; callbacks <= ThrottledProgress.MAX_THROTTLE_CALLBACKS; callbacks++) {
+                assertThat(ThrottledProgress.callbackDelaySeconds(callbacks))
+                    .isGreaterThanOrEqualTo(Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS);
+            }
+        }
+    }
+}
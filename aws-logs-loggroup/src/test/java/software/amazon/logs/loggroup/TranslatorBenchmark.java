@@ -0,0 +1,60 @@
+package software.amazon.logs.loggroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslatorBenchmark {
+    @Param({"1", "50", "1000"})
+    private int logGroupCount;
+
+    private DescribeLogGroupsResponse response;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final List<LogGroup> logGroups = new ArrayList<>(logGroupCount);
+        for (int i = 0; i < logGroupCount; i++) {
+            logGroups.add(LogGroup.builder()
+                    .logGroupName("/aws/lambda/function" + i)
+                    .arn("arn:aws:logs:us-east-1:123456789012:log-group:/aws/lambda/function" + i + ":*")
+                    .retentionInDays(i % 2 == 0 ? null : 30)
+                    .creationTime(1577836800000L + i)
+                    .storedBytes((long) i)
+                    .build());
+        }
+        response = DescribeLogGroupsResponse.builder()
+                .logGroups(logGroups)
+                .build();
+    }
+
+    @Benchmark
+    public ResourceModel translateForRead() {
+        return Translator.translateForRead(response);
+    }
+
+    @Benchmark
+    public List<ResourceModel> translateForList() {
+        return Translator.translateForList(response);
+    }
+}
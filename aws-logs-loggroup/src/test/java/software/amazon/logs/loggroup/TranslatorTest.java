@@ -11,6 +11,7 @@ import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRes
 import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
 import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyRequest;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,10 +27,21 @@ public class TranslatorTest {
     public void testTranslateToRead() {
         final DescribeLogGroupsRequest request = DescribeLogGroupsRequest.builder()
             .logGroupNamePrefix(RESOURCE_MODEL.getLogGroupName())
+            .limit(Translator.READ_PAGE_LIMIT)
             .build();
         assertThat(Translator.translateToReadRequest(RESOURCE_MODEL)).isEqualToComparingFieldByField(request);
     }
 
+    @Test
+    public void testTranslateToRead_WithNextToken() {
+        final DescribeLogGroupsRequest request = DescribeLogGroupsRequest.builder()
+            .logGroupNamePrefix(RESOURCE_MODEL.getLogGroupName())
+            .limit(Translator.READ_PAGE_LIMIT)
+            .nextToken("token")
+            .build();
+        assertThat(Translator.translateToReadRequest(RESOURCE_MODEL, "token")).isEqualToComparingFieldByField(request);
+    }
+
     @Test
     public void testTranslateToList() {
         final DescribeLogGroupsRequest request = DescribeLogGroupsRequest.builder()
@@ -39,6 +51,15 @@ public class TranslatorTest {
         assertThat(Translator.translateToListRequest("token")).isEqualToComparingFieldByField(request);
     }
 
+    @Test
+    public void testTranslateToList_WithLimit() {
+        final DescribeLogGroupsRequest request = DescribeLogGroupsRequest.builder()
+            .nextToken("token")
+            .limit(10)
+            .build();
+        assertThat(Translator.translateToListRequest("token", 10)).isEqualToComparingFieldByField(request);
+    }
+
     @Test
     public void testTranslateToDelete() {
         final DeleteLogGroupRequest request = DeleteLogGroupRequest.builder()
@@ -55,6 +76,19 @@ public class TranslatorTest {
         assertThat(Translator.translateToCreateRequest(RESOURCE_MODEL)).isEqualToComparingFieldByField(request);
     }
 
+    @Test
+    public void testTranslateToCreate_WithKmsKeyId() {
+        final ResourceModel model = ResourceModel.builder()
+            .logGroupName("LogGroup")
+            .kmsKeyId("arn:aws:kms:us-east-1:123456789012:key/key-id")
+            .build();
+        final CreateLogGroupRequest request = CreateLogGroupRequest.builder()
+            .logGroupName("LogGroup")
+            .kmsKeyId("arn:aws:kms:us-east-1:123456789012:key/key-id")
+            .build();
+        assertThat(Translator.translateToCreateRequest(model)).isEqualToComparingFieldByField(request);
+    }
+
     @Test
     public void testTranslateToPutRetentionPolicyRequest() {
         final PutRetentionPolicyRequest request = PutRetentionPolicyRequest.builder()
@@ -113,6 +147,88 @@ public class TranslatorTest {
         assertThat(Translator.translateForRead(response)).isEqualToComparingFieldByField(emptyModel);
     }
 
+    @Test
+    public void testTranslateForRead_FieldsFromSingleLogGroup() {
+        final LogGroup unnamed = LogGroup.builder()
+            .arn("arn:aws:logs:us-east-1:123456789012:log-group:Unnamed:*")
+            .retentionInDays(30)
+            .build();
+        final LogGroup logGroup = LogGroup.builder()
+            .logGroupName("LogGroup")
+            .arn("arn:aws:logs:us-east-1:123456789012:log-group:LogGroup:*")
+            .kmsKeyId("arn:aws:kms:us-east-1:123456789012:key/key-id")
+            .creationTime(1577836800000L)
+            .storedBytes(1024L)
+            .build();
+        final LogGroup other = LogGroup.builder()
+            .logGroupName("LogGroup2")
+            .retentionInDays(1)
+            .build();
+
+        final DescribeLogGroupsResponse response = DescribeLogGroupsResponse.builder()
+                .logGroups(Arrays.asList(unnamed, logGroup, other))
+                .build();
+        final ResourceModel expected = ResourceModel.builder()
+            .logGroupName("LogGroup")
+            .arn("arn:aws:logs:us-east-1:123456789012:log-group:LogGroup:*")
+            .kmsKeyId("arn:aws:kms:us-east-1:123456789012:key/key-id")
+            .creationTime(1577836800000D)
+            .build();
+        assertThat(Translator.translateForRead(response)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testTranslateForRead_LogGroupsNull() {
+        final DescribeLogGroupsResponse response = DescribeLogGroupsResponse.builder().build();
+        assertThat(Translator.translateForRead(response)).isEqualTo(ResourceModel.builder().build());
+    }
+
+    @Test
+    public void testTranslateForList() {
+        final LogGroup logGroup = LogGroup.builder()
+            .logGroupName("LogGroup")
+            .retentionInDays(1)
+            .storedBytes(1024L)
+            .build();
+        final DescribeLogGroupsResponse response = DescribeLogGroupsResponse.builder()
+            .logGroups(Collections.singletonList(logGroup))
+            .build();
+        final ResourceModel expected = ResourceModel.builder()
+            .logGroupName("LogGroup")
+            .retentionInDays(1)
+            .build();
+        assertThat(Translator.translateForList(response)).containsExactly(expected);
+        assertThat(Translator.streamForList(response)).containsExactly(expected);
+    }
+
+    @Test
+    public void testTranslateForRead_SingleLogGroup() {
+        final LogGroup logGroup = LogGroup.builder()
+            .logGroupName("LogGroup")
+            .retentionInDays(1)
+            .build();
+        assertThat(Translator.translateForRead(logGroup)).isEqualToComparingFieldByField(RESOURCE_MODEL);
+    }
+
+    @Test
+    public void testFindExactMatch() {
+        final LogGroup exact = LogGroup.builder().logGroupName("LogGroup").build();
+        final DescribeLogGroupsResponse response = DescribeLogGroupsResponse.builder()
+            .logGroups(Arrays.asList(LogGroup.builder().logGroupName("LogGroup-1").build(), exact))
+            .build();
+        assertThat(Translator.findExactMatch(response, "LogGroup")).contains(exact);
+        assertThat(Translator.findExactMatch(response, "LogGroup-2")).isEmpty();
+    }
+
+    @Test
+    public void testIsPastName() {
+        final DescribeLogGroupsResponse response = DescribeLogGroupsResponse.builder()
+            .logGroups(Arrays.asList(LogGroup.builder().build(), LogGroup.builder().logGroupName("LogGroup1").build()))
+            .build();
+        assertThat(Translator.isPastName(response, "LogGroup")).isTrue();
+        assertThat(Translator.isPastName(response, "LogGroup1")).isFalse();
+    }
+
     @Test
     public void buildResourceAlreadyExistsErrorMessage() {
         final String expected = "Resource of type 'AWS::Logs::LogGroup' with identifier 'ID' already exists.";
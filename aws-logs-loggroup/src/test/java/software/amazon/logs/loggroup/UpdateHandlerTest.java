@@ -1,6 +1,8 @@
 package software.amazon.logs.loggroup;
 
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -16,6 +18,7 @@ import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRes
 import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
 import software.amazon.awssdk.services.cloudwatchlogs.model.PutRetentionPolicyResponse;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 
@@ -24,6 +27,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class UpdateHandlerTest {
@@ -38,7 +43,7 @@ public class UpdateHandlerTest {
     @BeforeEach
     public void setup() {
         handler = new UpdateHandler();
-        proxy = mock(AmazonWebServicesClientProxy.class);
+        proxy = FakeCloudWatchLogsClient.mockProxy();
         logger = mock(Logger.class);
     }
 
@@ -181,7 +186,151 @@ public class UpdateHandlerTest {
             .desiredResourceState(model)
             .build();
 
-        assertThrows(software.amazon.cloudformation.exceptions.ResourceNotFoundException.class,
-            () -> handler.handleRequest(proxy, request, null, logger));
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    @Test
+    public void handleRequest_SuccessRetentionUnchanged_OnlyChecksTheGroupExists() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(Collections.singletonList("LogGroup"));
+        handler = handlerFor(client);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(FakeCloudWatchLogsClient.proxy(), unchangedRetentionRequest(), null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.callCount("DescribeLogGroups")).isEqualTo(1);
+        assertThat(client.callCount("PutRetentionPolicy")).isZero();
+        assertThat(client.callCount("DeleteRetentionPolicy")).isZero();
+    }
+
+    @Test
+    public void handleRequest_RetentionUnchanged_GroupGone_ReturnsNotFound() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient();
+        handler = handlerFor(client);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(FakeCloudWatchLogsClient.proxy(), unchangedRetentionRequest(), null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(client.callCount("PutRetentionPolicy")).isZero();
+    }
+
+    @Test
+    public void handleRequest_SuccessRetentionChanged_PutsRetentionPolicy() {
+        doReturn(PutRetentionPolicyResponse.builder().build())
+            .when(proxy)
+            .injectCredentialsAndInvokeV2(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any()
+            );
+
+        final ResourceModel previousModel = ResourceModel.builder()
+            .logGroupName("LogGroup")
+            .retentionInDays(1)
+            .build();
+        final ResourceModel model = ResourceModel.builder()
+            .logGroupName("LogGroup")
+            .retentionInDays(3)
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .previousResourceState(previousModel)
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy).injectCredentialsAndInvokeV2(
+            ArgumentMatchers.eq(Translator.translateToPutRetentionPolicyRequest(model)),
+            ArgumentMatchers.any());
+        verifyNoMoreInteractions(proxy);
+    }
+
+    @Test
+    public void handleRequest_Throttled_ReturnsInProgress() {
+        doThrow(new CfnThrottlingException("PutRetentionPolicyRequest"))
+            .when(proxy)
+            .injectCredentialsAndInvokeV2(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any()
+            );
+
+        final ResourceModel model = ResourceModel.builder()
+            .logGroupName("LogGroup")
+            .retentionInDays(1)
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isGreaterThanOrEqualTo(Deadline.LOCAL_REINVOKE_THRESHOLD_SECONDS);
+        assertThat(response.getCallbackContext().getThrottleCallbacks()).isEqualTo(1);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+    }
+
+    @Test
+    public void handleRequest_ReplayedRequestSkipsRetentionCalls() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(Collections.singletonList("LogGroup"));
+        handler = handlerFor(client);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .clientRequestToken("token")
+                .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").retentionInDays(7).build())
+                .build();
+
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(FakeCloudWatchLogsClient.proxy(), request, null, logger);
+
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        }
+        assertThat(client.callCount("PutRetentionPolicy")).isEqualTo(1);
+        assertThat(client.logGroup("LogGroup").get().retentionInDays()).isEqualTo(7);
+    }
+
+    @Test
+    public void handleRequest_NoTimeLeft_CheckpointsBeforeAnyCall() {
+        final FakeCloudWatchLogsClient client = new FakeCloudWatchLogsClient()
+            .addLogGroups(Collections.singletonList("LogGroup"));
+        handler = handlerFor(client);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").retentionInDays(7).build())
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> checkpoint =
+            handler.handleRequest(FakeCloudWatchLogsClient.proxy(() -> 1_000L), request, null, logger);
+
+        assertThat(checkpoint.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(checkpoint.getCallbackDelaySeconds()).isEqualTo(Deadline.CHECKPOINT_DELAY_SECONDS);
+        assertThat(client.callCount("PutRetentionPolicy")).isZero();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(
+            FakeCloudWatchLogsClient.proxy(), request, checkpoint.getCallbackContext(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.logGroup("LogGroup").get().retentionInDays()).isEqualTo(7);
+    }
+
+    private static UpdateHandler handlerFor(final FakeCloudWatchLogsClient client) {
+        return new UpdateHandler(() -> client, new LogGroupCache(Duration.ZERO, 1, System::nanoTime),
+            new IdempotencyLedger(Duration.ofMinutes(30), 100, System::nanoTime));
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> unchangedRetentionRequest() {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .previousResourceState(ResourceModel.builder().logGroupName("LogGroup").retentionInDays(1).build())
+            .desiredResourceState(ResourceModel.builder().logGroupName("LogGroup").retentionInDays(1).build())
+            .build();
     }
 }
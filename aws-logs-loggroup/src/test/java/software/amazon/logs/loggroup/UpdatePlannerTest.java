@@ -0,0 +1,48 @@
+package software.amazon.logs.loggroup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpdatePlannerTest {
+
+    @Test
+    public void plan_NoPreviousModel_AppliesDesiredRetention() {
+        final ResourceModel desired = ResourceModel.builder().logGroupName("LogGroup").retentionInDays(1).build();
+        assertThat(UpdatePlanner.plan(null, desired)).containsExactly(UpdatePlanner.Operation.PUT_RETENTION_POLICY);
+    }
+
+    @Test
+    public void plan_NoPreviousModel_DeletesRetention() {
+        final ResourceModel desired = ResourceModel.builder().logGroupName("LogGroup").build();
+        assertThat(UpdatePlanner.plan(null, desired)).containsExactly(UpdatePlanner.Operation.DELETE_RETENTION_POLICY);
+    }
+
+    @Test
+    public void plan_RetentionUnchanged_NoOperations() {
+        final ResourceModel previous = ResourceModel.builder().logGroupName("LogGroup").retentionInDays(1).build();
+        final ResourceModel desired = ResourceModel.builder().logGroupName("LogGroup").retentionInDays(1).build();
+        assertThat(UpdatePlanner.plan(previous, desired)).isEmpty();
+    }
+
+    @Test
+    public void plan_RetentionAbsentInBoth_NoOperations() {
+        final ResourceModel previous = ResourceModel.builder().logGroupName("LogGroup").build();
+        final ResourceModel desired = ResourceModel.builder().logGroupName("LogGroup").build();
+        assertThat(UpdatePlanner.plan(previous, desired)).isEmpty();
+    }
+
+    @Test
+    public void plan_RetentionChanged() {
+        final ResourceModel previous = ResourceModel.builder().logGroupName("LogGroup").retentionInDays(1).build();
+        final ResourceModel desired = ResourceModel.builder().logGroupName("LogGroup").retentionInDays(3).build();
+        assertThat(UpdatePlanner.plan(previous, desired)).containsExactly(UpdatePlanner.Operation.PUT_RETENTION_POLICY);
+    }
+
+    @Test
+    public void plan_RetentionRemoved() {
+        final ResourceModel previous = ResourceModel.builder().logGroupName("LogGroup").retentionInDays(1).build();
+        final ResourceModel desired = ResourceModel.builder().logGroupName("LogGroup").build();
+        assertThat(UpdatePlanner.plan(previous, desired)).containsExactly(UpdatePlanner.Operation.DELETE_RETENTION_POLICY);
+    }
+}